@@ -2,18 +2,23 @@ package com.example.auth.controller;
 
 import com.example.auth.entity.AuthUserDetails;
 import com.example.auth.entity.User;
+import com.example.auth.permission.PermissionEngine;
 import com.example.auth.service.AuthService;
 import com.example.auth.service.CustomUserDetailsService;
+import com.example.auth.service.LoginStatsAggregator;
+import com.example.common.util.PasswordHashingExecutor;
 import com.example.common.web.ApiResponse;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 认证控制器
@@ -29,29 +34,39 @@ public class AuthController {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private LoginStatsAggregator loginStatsAggregator;
+    
+    @Autowired
+    private PermissionEngine permissionEngine;
+    
     @ApiOperation("用户登录")
     @PostMapping("/login")
-    public ApiResponse<Map<String, Object>> login(@Valid @RequestBody LoginRequest request,
-                                                  HttpServletRequest httpRequest) {
+    public CompletableFuture<ApiResponse<Map<String, Object>>> login(@Valid @RequestBody LoginRequest request,
+                                                                     HttpServletRequest httpRequest) {
         System.out.println("=== LOGIN REQUEST START ===");
         System.out.println("Login request received - Username: " + request.getUsername());
         System.out.println("Login request headers: " + java.util.Collections.list(httpRequest.getHeaderNames()));
         
-        try {
-            String clientIp = getClientIp(httpRequest);
-            System.out.println("Client IP: " + clientIp);
-            
-            Map<String, Object> result = authService.login(request.getUsername(), request.getPassword(), clientIp);
-            System.out.println("Login successful for user: " + request.getUsername());
-            System.out.println("=== LOGIN REQUEST SUCCESS ===");
-            return ApiResponse.success("登录成功", result);
-        } catch (Exception e) {
-            System.err.println("Login failed for user: " + request.getUsername());
-            System.err.println("Login error: " + e.getClass().getSimpleName() + " - " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("=== LOGIN REQUEST FAILED ===");
-            throw e;
-        }
+        String clientIp = getClientIp(httpRequest);
+        System.out.println("Client IP: " + clientIp);
+        
+        // 密码校验异步执行，请求线程在此释放
+        return authService.login(request.getUsername(), request.getPassword(), clientIp)
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    System.err.println("Login failed for user: " + request.getUsername());
+                    System.err.println("Login error: " + error.getClass().getSimpleName() + " - " + error.getMessage());
+                    System.out.println("=== LOGIN REQUEST FAILED ===");
+                } else {
+                    System.out.println("Login successful for user: " + request.getUsername());
+                    System.out.println("=== LOGIN REQUEST SUCCESS ===");
+                }
+            })
+            .thenApply(result -> ApiResponse.success("登录成功", result));
     }
     
     @ApiOperation("用户注册")
@@ -138,6 +153,32 @@ public class AuthController {
         return ApiResponse.success("获取用户列表成功", users);
     }
     
+    @ApiOperation("密码哈希执行器统计")
+    @GetMapping("/password-hashing/stats")
+    public ApiResponse<Map<String, Object>> passwordHashingStatistics() {
+        return ApiResponse.success(passwordHashingExecutor.getStatistics());
+    }
+    
+    @ApiOperation("登录统计写入统计")
+    @GetMapping("/login-stats/stats")
+    public ApiResponse<Map<String, Object>> loginStatsStatistics() {
+        return ApiResponse.success(loginStatsAggregator.getStatistics());
+    }
+    
+    @ApiOperation("权限索引统计")
+    @GetMapping("/permissions/stats")
+    public ApiResponse<Map<String, Object>> permissionStatistics() {
+        return ApiResponse.success(permissionEngine.getStatistics());
+    }
+    
+    @ApiOperation("重新加载角色和权限")
+    @PreAuthorize("hasRole('ADMIN') or hasPermission(null, 'permission:reload')")
+    @PostMapping("/permissions/reload")
+    public ApiResponse<Map<String, Object>> reloadPermissions() {
+        permissionEngine.publishReload();
+        return ApiResponse.success("权限已重新加载", permissionEngine.getStatistics());
+    }
+    
     /**
      * 获取客户端真实IP地址
      */
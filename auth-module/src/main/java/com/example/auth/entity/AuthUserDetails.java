@@ -1,16 +1,14 @@
 package com.example.auth.entity;
 
+import com.example.auth.permission.PermissionSet;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * 认证用户详情
+ * 角色和权限以预编译的权限位集合表示
  */
 public class AuthUserDetails implements UserDetails {
     
@@ -21,7 +19,7 @@ public class AuthUserDetails implements UserDetails {
     private boolean accountNonExpired;
     private boolean accountNonLocked;
     private boolean credentialsNonExpired;
-    private Set<Role> roles;
+    private PermissionSet permissions = PermissionSet.EMPTY;
     
     public AuthUserDetails() {}
     
@@ -33,7 +31,7 @@ public class AuthUserDetails implements UserDetails {
         this.accountNonExpired = builder.accountNonExpired;
         this.accountNonLocked = builder.accountNonLocked;
         this.credentialsNonExpired = builder.credentialsNonExpired;
-        this.roles = builder.roles;
+        this.permissions = builder.permissions;
     }
     
     public static Builder builder() {
@@ -42,13 +40,7 @@ public class AuthUserDetails implements UserDetails {
     
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if (roles == null || roles.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        return roles.stream()
-            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getRoleCode()))
-            .collect(Collectors.toList());
+        return permissions.getAuthorities();
     }
     
     @Override
@@ -86,8 +78,15 @@ public class AuthUserDetails implements UserDetails {
         return userId;
     }
     
-    public Set<Role> getRoles() {
-        return roles;
+    public PermissionSet getPermissions() {
+        return permissions;
+    }
+    
+    /**
+     * 判断是否拥有权限编码
+     */
+    public boolean hasPermission(String permissionCode) {
+        return permissions.hasPermission(permissionCode);
     }
     
     public static class Builder {
@@ -98,7 +97,7 @@ public class AuthUserDetails implements UserDetails {
         private boolean accountNonExpired = true;
         private boolean accountNonLocked = true;
         private boolean credentialsNonExpired = true;
-        private Set<Role> roles;
+        private PermissionSet permissions = PermissionSet.EMPTY;
         
         public Builder userId(Long userId) {
             this.userId = userId;
@@ -135,8 +134,8 @@ public class AuthUserDetails implements UserDetails {
             return this;
         }
         
-        public Builder roles(Set<Role> roles) {
-            this.roles = roles;
+        public Builder permissions(PermissionSet permissions) {
+            this.permissions = permissions != null ? permissions : PermissionSet.EMPTY;
             return this;
         }
         
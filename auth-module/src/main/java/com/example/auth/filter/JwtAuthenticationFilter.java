@@ -1,8 +1,10 @@
 package com.example.auth.filter;
 
 import com.example.common.util.JwtUtil;
-import com.example.auth.service.CustomUserDetailsService;
+import com.example.auth.service.UserDetailsCache;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +18,8 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * JWT认证过滤器
@@ -27,7 +31,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -43,11 +50,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
             System.out.println("Processing JWT authentication...");
             try {
-                String username = jwtUtil.getUsernameFromToken(token);
+                Claims claims = jwtUtil.parseToken(token);
+                String username = claims.getSubject();
                 System.out.println("Username from token: " + username);
                 
-                if (StringUtils.hasText(username)) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (JwtUtil.isRefreshToken(claims)) {
+                    // refresh token只能用于刷新接口
+                    System.out.println("Refresh token cannot be used for authentication: " + username);
+                } else if (isRevoked(token, claims)) {
+                    System.out.println("Token has been revoked: " + username);
+                } else if (StringUtils.hasText(username)) {
+                    // 优先从两级缓存获取，避免每个请求查询数据库
+                    UserDetails userDetails = userDetailsCache.get(username);
                     System.out.println("UserDetails loaded for: " + username);
                     
                     if (jwtUtil.validateToken(token, username)) {
@@ -76,6 +90,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * token已退出登录或所属令牌家族已作废（一次EXISTS查询）
+     */
+    private boolean isRevoked(String token, Claims claims) {
+        List<String> keys = new ArrayList<>(2);
+        keys.add("token_blacklist:" + token);
+        String familyId = claims.get(JwtUtil.CLAIM_FAMILY_ID, String.class);
+        if (familyId != null) {
+            keys.add("revoked_family:" + familyId);
+        }
+        Long count = redisTemplate.countExistingKeys(keys);
+        return count != null && count > 0;
+    }
+    
     private String getTokenFromRequest(HttpServletRequest request) {
         System.out.println("--- Extracting token from request ---");
         
@@ -0,0 +1,30 @@
+package com.example.auth.permission;
+
+import com.example.auth.entity.AuthUserDetails;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+
+import java.io.Serializable;
+
+/**
+ * 基于权限位集合的权限判断
+ * 支持在方法注解中使用 hasPermission(null, '权限编码')，判断时只做位测试
+ */
+public class BitsetPermissionEvaluator implements PermissionEvaluator {
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        if (authentication == null || permission == null
+                || !(authentication.getPrincipal() instanceof AuthUserDetails)) {
+            return false;
+        }
+        AuthUserDetails userDetails = (AuthUserDetails) authentication.getPrincipal();
+        return userDetails.getPermissions().hasPermission(permission.toString());
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType,
+                                 Object permission) {
+        return hasPermission(authentication, null, permission);
+    }
+}
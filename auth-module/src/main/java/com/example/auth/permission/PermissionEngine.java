@@ -0,0 +1,146 @@
+package com.example.auth.permission;
+
+import com.example.auth.repository.PermissionRepository;
+import com.example.auth.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 权限引擎
+ * 启动时一次性加载全部角色、权限及其关系并编译为权限位索引，用户权限以位集合表示；
+ * 角色或权限变更后调用publishReload，各实例重新加载并整体替换快照
+ */
+@Component
+public class PermissionEngine {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Value("${auth.permissions.reload-channel:auth:permissions:reload}")
+    private String reloadChannel;
+
+    private volatile PermissionIndex index = PermissionIndex.EMPTY;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        reload();
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> reload(), new ChannelTopic(reloadChannel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * 从数据库重新加载角色和权限
+     */
+    public synchronized void reload() {
+        try {
+            index = PermissionIndex.build(
+                roleRepository.findEnabledRoleCodes(),
+                permissionRepository.findEnabledPermissionCodes(),
+                permissionRepository.findEnabledRolePermissionCodes());
+            System.out.println("权限索引加载完成 - 角色: " + index.roleCount() + ", 权限位: " + index.size());
+        } catch (Exception e) {
+            // 加载失败时保留上一份快照
+            System.err.println("加载权限索引失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 重新加载并通知其他实例
+     */
+    public void publishReload() {
+        reload();
+        try {
+            stringRedisTemplate.convertAndSend(reloadChannel, "reload");
+        } catch (Exception e) {
+            System.err.println("发布权限重新加载消息失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将角色编译为权限位集合
+     */
+    public PermissionSet compile(Collection<String> roleCodes) {
+        PermissionIndex current = index;
+        for (String roleCode : roleCodes) {
+            if (current.getRoleBits(roleCode) == null) {
+                current = registerRole(roleCode);
+            }
+        }
+
+        long[] bits = new long[current.wordCount()];
+        for (String roleCode : roleCodes) {
+            long[] role = current.getRoleBits(roleCode);
+            for (int i = 0; i < role.length; i++) {
+                bits[i] |= role[i];
+            }
+        }
+        return new PermissionSet(current, bits);
+    }
+
+    /**
+     * 权限位集合是否按当前权限索引编译；重新加载后旧集合的位序号和角色权限都可能已过期
+     */
+    public boolean isCurrent(PermissionSet permissions) {
+        return permissions.compiledWith(index);
+    }
+
+    /**
+     * 当前权限索引中的位序号，可预先计算后用于PermissionSet.has
+     */
+    public int indexOf(String authority) {
+        return index.indexOf(authority);
+    }
+
+    /**
+     * 获取权限索引统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        PermissionIndex current = index;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("roles", current.roleCount());
+        stats.put("authorities", current.size());
+        stats.put("words", current.wordCount());
+        return stats;
+    }
+
+    /**
+     * 追加数据库中未定义的角色
+     */
+    private synchronized PermissionIndex registerRole(String roleCode) {
+        index = index.withRole(roleCode);
+        return index;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.auth.permission;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限位索引（不可变快照）
+ * 为每个权限编码和角色（ROLE_前缀）分配一个位序号，并把每个角色预编译为位集合；
+ * 角色或权限变更时整体重建新快照替换，已有快照不会被修改
+ */
+public final class PermissionIndex {
+
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    static final PermissionIndex EMPTY = new PermissionIndex(new String[0], Collections.emptyMap());
+
+    /**
+     * 位序号到权限标识的映射
+     */
+    private final String[] authorities;
+
+    private final Map<String, Integer> positions;
+
+    private final Map<String, long[]> roleBits;
+
+    private PermissionIndex(String[] authorities, Map<String, long[]> roleBits) {
+        this.authorities = authorities;
+        this.positions = new HashMap<>(authorities.length * 2);
+        for (int i = 0; i < authorities.length; i++) {
+            positions.put(authorities[i], i);
+        }
+        this.roleBits = roleBits;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param roleCodes       启用的角色编码
+     * @param permissionCodes 启用的权限编码
+     * @param grants          角色-权限关系，每项为[角色编码, 权限编码]
+     */
+    public static PermissionIndex build(Collection<String> roleCodes, Collection<String> permissionCodes,
+                                        Collection<Object[]> grants) {
+        List<String> authorities = new ArrayList<>();
+        Map<String, Integer> positions = new HashMap<>();
+        for (String roleCode : roleCodes) {
+            assign(authorities, positions, ROLE_PREFIX + roleCode);
+        }
+        for (String permissionCode : permissionCodes) {
+            assign(authorities, positions, permissionCode);
+        }
+
+        int words = wordCount(authorities.size());
+        Map<String, long[]> roleBits = new HashMap<>();
+        for (String roleCode : roleCodes) {
+            long[] bits = new long[words];
+            set(bits, positions.get(ROLE_PREFIX + roleCode));
+            roleBits.put(roleCode, bits);
+        }
+        for (Object[] grant : grants) {
+            long[] bits = roleBits.get((String) grant[0]);
+            Integer position = positions.get((String) grant[1]);
+            if (bits != null && position != null) {
+                set(bits, position);
+            }
+        }
+        return new PermissionIndex(authorities.toArray(new String[0]), roleBits);
+    }
+
+    /**
+     * 追加数据库中不存在的角色（如用户表中直接配置的角色），返回新快照
+     */
+    PermissionIndex withRole(String roleCode) {
+        if (roleBits.containsKey(roleCode)) {
+            return this;
+        }
+        String[] extended = Arrays.copyOf(authorities, authorities.length + 1);
+        extended[authorities.length] = ROLE_PREFIX + roleCode;
+
+        int words = wordCount(extended.length);
+        Map<String, long[]> extendedRoles = new HashMap<>();
+        roleBits.forEach((code, bits) -> extendedRoles.put(code, Arrays.copyOf(bits, words)));
+        long[] bits = new long[words];
+        set(bits, authorities.length);
+        extendedRoles.put(roleCode, bits);
+        return new PermissionIndex(extended, extendedRoles);
+    }
+
+    /**
+     * 获取权限标识的位序号，不存在时返回-1
+     */
+    public int indexOf(String authority) {
+        Integer position = positions.get(authority);
+        return position != null ? position : -1;
+    }
+
+    public String authorityAt(int position) {
+        return authorities[position];
+    }
+
+    public int size() {
+        return authorities.length;
+    }
+
+    public int roleCount() {
+        return roleBits.size();
+    }
+
+    long[] getRoleBits(String roleCode) {
+        return roleBits.get(roleCode);
+    }
+
+    int wordCount() {
+        return wordCount(authorities.length);
+    }
+
+    private static void assign(List<String> authorities, Map<String, Integer> positions, String authority) {
+        if (!positions.containsKey(authority)) {
+            positions.put(authority, authorities.size());
+            authorities.add(authority);
+        }
+    }
+
+    private static int wordCount(int bitCount) {
+        return (bitCount + 63) >>> 6;
+    }
+
+    private static void set(long[] bits, int position) {
+        bits[position >>> 6] |= 1L << position;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.auth.permission;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户的权限位集合（不可变）
+ * 位序号由编译时的权限索引决定，判断权限时只做一次位测试；
+ * Spring Security需要的GrantedAuthority列表在首次使用时按位解码并缓存
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(PermissionIndex.EMPTY, new long[0]);
+
+    private final PermissionIndex index;
+
+    private final long[] bits;
+
+    private volatile List<GrantedAuthority> authorities;
+
+    PermissionSet(PermissionIndex index, long[] bits) {
+        this.index = index;
+        this.bits = bits;
+    }
+
+    /**
+     * 是否按指定的权限索引编译
+     */
+    boolean compiledWith(PermissionIndex index) {
+        return this.index == index;
+    }
+
+    /**
+     * 按位序号判断
+     */
+    public boolean has(int position) {
+        int word = position >>> 6;
+        return position >= 0 && word < bits.length && (bits[word] & (1L << position)) != 0;
+    }
+
+    /**
+     * 判断是否拥有权限编码
+     */
+    public boolean hasPermission(String permissionCode) {
+        return has(index.indexOf(permissionCode));
+    }
+
+    /**
+     * 判断是否拥有角色
+     */
+    public boolean hasRole(String roleCode) {
+        return has(index.indexOf(PermissionIndex.ROLE_PREFIX + roleCode));
+    }
+
+    /**
+     * 解码出角色编码（不含ROLE_前缀）
+     */
+    public Set<String> getRoleCodes() {
+        Set<String> roleCodes = new LinkedHashSet<>();
+        for (GrantedAuthority authority : getAuthorities()) {
+            String value = authority.getAuthority();
+            if (value.startsWith(PermissionIndex.ROLE_PREFIX)) {
+                roleCodes.add(value.substring(PermissionIndex.ROLE_PREFIX.length()));
+            }
+        }
+        return roleCodes;
+    }
+
+    /**
+     * 解码为Spring Security的权限列表
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        List<GrantedAuthority> result = authorities;
+        if (result == null) {
+            List<GrantedAuthority> decoded = new ArrayList<>();
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    int position = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                    decoded.add(new SimpleGrantedAuthority(index.authorityAt(position)));
+                    remaining &= remaining - 1;
+                }
+            }
+            result = Collections.unmodifiableList(decoded);
+            authorities = result;
+        }
+        return result;
+    }
+}
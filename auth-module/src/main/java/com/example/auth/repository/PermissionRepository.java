@@ -0,0 +1,27 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.Permission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 权限数据访问接口
+ */
+@Repository
+public interface PermissionRepository extends JpaRepository<Permission, Long> {
+    
+    /**
+     * 查询启用权限的编码
+     */
+    @Query("SELECT p.permissionCode FROM Permission p WHERE p.status = 1 ORDER BY p.id")
+    List<String> findEnabledPermissionCodes();
+    
+    /**
+     * 一次查询全部启用的角色-权限关系，返回[角色编码, 权限编码]
+     */
+    @Query("SELECT r.roleCode, p.permissionCode FROM Permission p JOIN p.roles r WHERE p.status = 1 AND r.status = 1")
+    List<Object[]> findEnabledRolePermissionCodes();
+}
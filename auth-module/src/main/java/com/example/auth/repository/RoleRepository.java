@@ -0,0 +1,21 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 角色数据访问接口
+ */
+@Repository
+public interface RoleRepository extends JpaRepository<Role, Long> {
+    
+    /**
+     * 查询启用角色的编码
+     */
+    @Query("SELECT r.roleCode FROM Role r WHERE r.status = 1 ORDER BY r.id")
+    List<String> findEnabledRoleCodes();
+}
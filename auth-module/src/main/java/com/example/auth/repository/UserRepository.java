@@ -65,6 +65,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("UPDATE User u SET u.lastLoginAt = :loginTime, u.loginCount = u.loginCount + 1 WHERE u.id = :userId")
     void updateLoginInfo(@Param("userId") Long userId, @Param("loginTime") LocalDateTime loginTime);
     
+    /**
+     * 更新用户密码哈希
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = :updatedAt WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+    
     /**
      * 统计用户总数
      */
@@ -2,9 +2,13 @@ package com.example.auth.service;
 
 import com.example.auth.entity.AuthUserDetails;
 import com.example.common.util.JwtUtil;
+import com.example.common.util.PasswordHashingExecutor;
 import com.example.common.util.PasswordUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,8 +18,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,92 +45,149 @@ public class AuthService {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
     
-    private static final String LOGIN_ATTEMPTS_PREFIX = "login_attempts:";
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+    
+    @Autowired
+    private LoginStatsAggregator loginStatsAggregator;
+    
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+    
     private static final String TOKEN_BLACKLIST_PREFIX = "token_blacklist:";
-    private static final int MAX_LOGIN_ATTEMPTS = 5;
-    private static final int LOCKOUT_DURATION_MINUTES = 30;
+    private static final int ACCESS_TOKEN_TTL_SECONDS = 86400; // 24小时
+    private static final int REFRESH_TOKEN_TTL_SECONDS = 604800; // 7天
+    
+    private static final String REFRESH_FAMILY_PREFIX = "refresh_family:";
+    
+    // 已作废的令牌家族，保留到该家族最后签发的access token过期为止；认证过滤器据此拒绝该家族的access token
+    private static final String REVOKED_FAMILY_PREFIX = "revoked_family:";
+    
+    private static final long REFRESH_FAMILY_MISSING = -2L;
+    private static final long REFRESH_REUSED = -1L;
+    
+    // 登录成功：缓存登录状态，创建序号为0的refresh token家族，清除登录失败记录
+    private static final DefaultRedisScript<Long> LOGIN_SESSION_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('set', KEYS[1], ARGV[1], 'EX', ARGV[2])\n" +
+        "redis.call('hset', KEYS[2], 'seq', 0, 'uid', ARGV[1])\n" +
+        "redis.call('expire', KEYS[2], ARGV[3])\n" +
+        "redis.call('del', KEYS[3])\n" +
+        "return 1", Long.class);
+    
+    // refresh token轮换：序号与家族当前序号一致时递增并缓存新access token；
+    // 序号不一致说明旧token被重放，整个家族作废，已签发的access token一并失效
+    private static final DefaultRedisScript<Long> REFRESH_ROTATION_SCRIPT = new DefaultRedisScript<>(
+        "local current = redis.call('hget', KEYS[1], 'seq')\n" +
+        "if not current then\n" +
+        "    return -2\n" +
+        "end\n" +
+        "if tonumber(current) ~= tonumber(ARGV[1]) then\n" +
+        "    redis.call('del', KEYS[1])\n" +
+        "    redis.call('set', KEYS[3], '1', 'EX', ARGV[3])\n" +
+        "    return -1\n" +
+        "end\n" +
+        "local next = redis.call('hincrby', KEYS[1], 'seq', 1)\n" +
+        "redis.call('expire', KEYS[1], ARGV[4])\n" +
+        "redis.call('set', KEYS[2], ARGV[2], 'EX', ARGV[3])\n" +
+        "return next", Long.class);
     
     /**
-     * 用户登录
+     * 用户登录（异步）
+     * 密码校验在密码哈希执行器中进行，不占用Web容器线程；校验通过后在应用任务执行器中生成令牌并缓存登录状态
      */
-    public Map<String, Object> login(String username, String password, String clientIp) {
+    public CompletableFuture<Map<String, Object>> login(String username, String password, String clientIp) {
         System.out.println("=== AuthService.login START ===");
         System.out.println("Login attempt - Username: " + username + ", IP: " + clientIp);
         
-        try {
-            // 检查登录尝试次数
-            System.out.println("Checking login attempts for user: " + username);
-            checkLoginAttempts(username, clientIp);
-            System.out.println("Login attempts check passed");
-
-            // 认证用户
-            System.out.println("Authenticating user with AuthenticationManager...");
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password)
-            );
-            System.out.println("Authentication successful");
-
-            // 获取用户详情
-            AuthUserDetails userDetails = (AuthUserDetails) authentication.getPrincipal();
-            Long userId = userDetails.getUserId();
-            System.out.println("User details retrieved - UserId: " + userId + ", Username: " + userDetails.getUsername());
-
-            // 生成JWT token
-            System.out.println("Generating JWT tokens...");
-            String accessToken = jwtUtil.generateToken(username, userId);
-            String refreshToken = jwtUtil.generateRefreshToken(username, userId);
-            System.out.println("JWT tokens generated successfully");
-            System.out.println("Access token length: " + accessToken.length());
-            System.out.println("Refresh token length: " + refreshToken.length());
-
-            // 缓存登录状态
-            System.out.println("Caching login status and refresh token...");
-            cacheLoginStatus(accessToken, userId, 86400); // 24小时
-            cacheRefreshToken(refreshToken, userId, 604800); // 7天
-            System.out.println("Login status cached successfully");
-
-            // 清除登录失败记录
-            clearLoginAttempts(username, clientIp);
-
-            // 记录登录日志
-            recordLoginLog(userId, username, clientIp, true, "登录成功");
-
-            // 更新用户登录信息
-            System.out.println("Updating user login info...");
-            userDetailsService.updateLoginInfo(username);
-            System.out.println("User login info updated");
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("accessToken", accessToken);
-            result.put("refreshToken", refreshToken);
-            result.put("tokenType", "Bearer");
-            result.put("expiresIn", 86400);
-            result.put("refreshExpiresIn", 604800);
-            result.put("userId", userId);
-            result.put("username", username);
-            result.put("authorities", userDetails.getAuthorities());
-
-            System.out.println("Login result prepared successfully");
-            System.out.println("=== AuthService.login SUCCESS ===");
-            return result;
-
-        } catch (AuthenticationException e) {
+        // 检查登录尝试次数
+        System.out.println("Checking login attempts for user: " + username);
+        loginAttemptLimiter.checkLocked(username, clientIp);
+        System.out.println("Login attempts check passed");
+        
+        // 认证用户
+        System.out.println("Authenticating user on password hashing executor...");
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password)))
+            .handleAsync((authentication, error) -> {
+                if (error != null) {
+                    throw handleLoginFailure(username, clientIp, error);
+                }
+                return completeLogin(authentication, username, clientIp);
+            }, taskExecutor);
+    }
+    
+    /**
+     * 认证通过后生成令牌、缓存登录状态并更新登录信息
+     */
+    private Map<String, Object> completeLogin(Authentication authentication, String username, String clientIp) {
+        System.out.println("Authentication successful");
+        
+        // 获取用户详情
+        AuthUserDetails userDetails = (AuthUserDetails) authentication.getPrincipal();
+        Long userId = userDetails.getUserId();
+        System.out.println("User details retrieved - UserId: " + userId + ", Username: " + userDetails.getUsername());
+        
+        // 生成JWT token
+        System.out.println("Generating JWT tokens...");
+        String familyId = UUID.randomUUID().toString().replace("-", "");
+        String accessToken = jwtUtil.generateToken(username, userId, familyId);
+        String refreshToken = jwtUtil.generateRefreshToken(username, userId, familyId, 0L);
+        System.out.println("JWT tokens generated successfully");
+        System.out.println("Access token length: " + accessToken.length());
+        System.out.println("Refresh token length: " + refreshToken.length());
+        
+        // 缓存登录状态和refresh token并清除登录失败记录（一次往返）
+        System.out.println("Caching login status and refresh token...");
+        cacheLoginSession(accessToken, familyId, userId, username, clientIp);
+        System.out.println("Login status cached successfully");
+        
+        // 记录登录日志
+        recordLoginLog(userId, username, clientIp, true, "登录成功");
+        
+        // 登录信息由聚合器批量写入，不在登录路径上访问数据库
+        loginStatsAggregator.record(userId, LocalDateTime.now());
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("accessToken", accessToken);
+        result.put("refreshToken", refreshToken);
+        result.put("tokenType", "Bearer");
+        result.put("expiresIn", ACCESS_TOKEN_TTL_SECONDS);
+        result.put("refreshExpiresIn", REFRESH_TOKEN_TTL_SECONDS);
+        result.put("userId", userId);
+        result.put("username", username);
+        result.put("authorities", userDetails.getAuthorities());
+        
+        System.out.println("Login result prepared successfully");
+        System.out.println("=== AuthService.login SUCCESS ===");
+        return result;
+    }
+    
+    /**
+     * 处理登录失败，返回需要抛出的异常
+     */
+    private RuntimeException handleLoginFailure(String username, String clientIp, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        
+        if (cause instanceof AuthenticationException) {
             System.err.println("Authentication failed for user: " + username);
-            System.err.println("Authentication error: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+            System.err.println("Authentication error: " + cause.getClass().getSimpleName() + " - " + cause.getMessage());
             
             // 记录登录失败
-            recordLoginAttempt(username, clientIp);
-            recordLoginLog(null, username, clientIp, false, e.getMessage());
+            loginAttemptLimiter.recordFailure(username, clientIp);
+            recordLoginLog(null, username, clientIp, false, cause.getMessage());
             
             System.out.println("=== AuthService.login FAILED ===");
-            throw new BadCredentialsException("用户名或密码错误");
-        } catch (Exception e) {
-            System.err.println("Unexpected error during login for user: " + username);
-            System.err.println("Error: " + e.getClass().getSimpleName() + " - " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("=== AuthService.login ERROR ===");
-            throw e;
+            return new BadCredentialsException("用户名或密码错误");
         }
+        
+        System.err.println("Unexpected error during login for user: " + username);
+        System.err.println("Error: " + cause.getClass().getSimpleName() + " - " + cause.getMessage());
+        System.out.println("=== AuthService.login ERROR ===");
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
     }
     
     /**
@@ -150,38 +216,34 @@ public class AuthService {
                 throw new RuntimeException("Refresh token格式无效，不是有效的JWT。当前格式: " + tokenParts.length + " 部分，应为3部分");
             }
             
-            // 检查token是否在黑名单中
-            if (isTokenBlacklisted(refreshToken)) {
-                throw new RuntimeException("Token已失效");
-            }
-            
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
-            Long userId = jwtUtil.getUserIdFromToken(refreshToken);
+            // 只解析一次，签名或有效期不通过时直接抛出
+            Claims claims = jwtUtil.parseToken(refreshToken);
+            String username = claims.getSubject();
+            Long userId = Long.valueOf(claims.get("userId").toString());
+            String familyId = claims.get(JwtUtil.CLAIM_FAMILY_ID, String.class);
+            Number sequence = claims.get(JwtUtil.CLAIM_SEQUENCE, Number.class);
             
-            if (username != null && !jwtUtil.isTokenExpired(refreshToken)) {
-                // 验证refresh token缓存
-                Long cachedUserId = getCachedRefreshToken(refreshToken);
-                if (cachedUserId == null || !cachedUserId.equals(userId)) {
+            if (username != null && JwtUtil.isRefreshToken(claims) && familyId != null && sequence != null) {
+                // 新access token只依赖家族ID，先生成以便在同一次脚本调用中缓存登录状态
+                String newAccessToken = jwtUtil.generateToken(username, userId, familyId);
+                
+                // 原子轮换：一次Redis调用完成序号比对和递增，并发重放只有一个能成功
+                long nextSequence = rotateRefreshFamily(familyId, sequence.longValue(), newAccessToken, userId);
+                if (nextSequence == REFRESH_REUSED) {
+                    System.err.println("检测到refresh token重放，已作废整个令牌家族 - UserId: " + userId + ", Family: " + familyId);
+                    throw new RuntimeException("Token已失效");
+                }
+                if (nextSequence == REFRESH_FAMILY_MISSING) {
                     throw new RuntimeException("Refresh token无效");
                 }
-                
-                // 生成新的access token
-                String newAccessToken = jwtUtil.generateToken(username, userId);
-                String newRefreshToken = jwtUtil.generateRefreshToken(username, userId);
-                
-                // 将旧的refresh token加入黑名单
-                addTokenToBlacklist(refreshToken);
-                
-                // 缓存新的token
-                cacheLoginStatus(newAccessToken, userId, 86400);
-                cacheRefreshToken(newRefreshToken, userId, 604800);
+                String newRefreshToken = jwtUtil.generateRefreshToken(username, userId, familyId, nextSequence);
                 
                 Map<String, Object> result = new HashMap<>();
                 result.put("accessToken", newAccessToken);
                 result.put("refreshToken", newRefreshToken);
                 result.put("tokenType", "Bearer");
-                result.put("expiresIn", 86400);
-                result.put("refreshExpiresIn", 604800);
+                result.put("expiresIn", ACCESS_TOKEN_TTL_SECONDS);
+                result.put("refreshExpiresIn", REFRESH_TOKEN_TTL_SECONDS);
                 
                 return result;
             }
@@ -246,6 +308,7 @@ public class AuthService {
                 if (userId != null) {
                     clearLoginStatus(token);
                     System.out.println("Login status cleared successfully");
+                    revokeRefreshFamily(token);
                 } else {
                     System.out.println("UserId is null, skipping login status clear");
                 }
@@ -276,8 +339,8 @@ public class AuthService {
                 return false;
             }
             
-            String username = jwtUtil.getUsernameFromToken(token);
-            return username != null && !jwtUtil.isTokenExpired(token);
+            Claims claims = jwtUtil.parseToken(token);
+            return claims.getSubject() != null && !JwtUtil.isRefreshToken(claims) && !isFamilyRevoked(claims);
         } catch (Exception e) {
             return false;
         }
@@ -311,86 +374,45 @@ public class AuthService {
     }
     
     /**
-     * 检查登录尝试次数
-     */
-    private void checkLoginAttempts(String username, String clientIp) {
-        String key = LOGIN_ATTEMPTS_PREFIX + username + ":" + clientIp;
-        Integer attempts = (Integer) redisTemplate.opsForValue().get(key);
-        
-        if (attempts != null && attempts >= MAX_LOGIN_ATTEMPTS) {
-            throw new RuntimeException("登录失败次数过多，账户已被锁定" + LOCKOUT_DURATION_MINUTES + "分钟");
-        }
-    }
-    
-    /**
-     * 记录登录尝试
-     */
-    private void recordLoginAttempt(String username, String clientIp) {
-        String key = LOGIN_ATTEMPTS_PREFIX + username + ":" + clientIp;
-        Integer attempts = (Integer) redisTemplate.opsForValue().get(key);
-        attempts = attempts == null ? 1 : attempts + 1;
-        
-        redisTemplate.opsForValue().set(key, attempts, LOCKOUT_DURATION_MINUTES, TimeUnit.MINUTES);
-    }
-    
-    /**
-     * 清除登录失败记录
+     * 缓存登录状态、创建refresh token家族，并清除登录失败记录
      */
-    private void clearLoginAttempts(String username, String clientIp) {
-        String key = LOGIN_ATTEMPTS_PREFIX + username + ":" + clientIp;
-        redisTemplate.delete(key);
+    private void cacheLoginSession(String accessToken, String familyId, Long userId, String username, String clientIp) {
+        redisTemplate.execute(LOGIN_SESSION_SCRIPT,
+            Arrays.asList("login:" + accessToken, REFRESH_FAMILY_PREFIX + familyId,
+                loginAttemptLimiter.buildKey(username, clientIp)),
+            userId, ACCESS_TOKEN_TTL_SECONDS, REFRESH_TOKEN_TTL_SECONDS);
     }
     
     /**
-     * 缓存登录状态
+     * 原子轮换refresh token家族
+     * 返回新序号；-1表示旧序号被重放（家族已作废），-2表示家族不存在或已退出登录
      */
-    private void cacheLoginStatus(String token, Long userId, int expireSeconds) {
-        String cacheKey = "login:" + token;
-        redisTemplate.opsForValue().set(cacheKey, userId, expireSeconds, TimeUnit.SECONDS);
+    private long rotateRefreshFamily(String familyId, long sequence, String newAccessToken, Long userId) {
+        Long result = redisTemplate.execute(REFRESH_ROTATION_SCRIPT,
+            Arrays.asList(REFRESH_FAMILY_PREFIX + familyId, "login:" + newAccessToken, REVOKED_FAMILY_PREFIX + familyId),
+            sequence, userId, ACCESS_TOKEN_TTL_SECONDS, REFRESH_TOKEN_TTL_SECONDS);
+        return result != null ? result : REFRESH_FAMILY_MISSING;
     }
     
     /**
-     * 缓存refresh token
+     * 清除登录状态
      */
-    private void cacheRefreshToken(String refreshToken, Long userId, int expireSeconds) {
-        String cacheKey = "refresh:" + refreshToken;
-        redisTemplate.opsForValue().set(cacheKey, userId, expireSeconds, TimeUnit.SECONDS);
+    private void clearLoginStatus(String token) {
+        redisTemplate.delete("login:" + token);
     }
     
     /**
-     * 获取缓存的refresh token
+     * 作废access token所属的refresh token家族，该家族的所有refresh token和已签发的access token随之失效
      */
-    private Long getCachedRefreshToken(String refreshToken) {
-        String cacheKey = "refresh:" + refreshToken;
-        Object cachedValue = redisTemplate.opsForValue().get(cacheKey);
-        if (cachedValue == null) {
-            return null;
-        }
-        
-        // 处理不同的数值类型
-        if (cachedValue instanceof Long) {
-            return (Long) cachedValue;
-        } else if (cachedValue instanceof Integer) {
-            return ((Integer) cachedValue).longValue();
-        } else if (cachedValue instanceof Number) {
-            return ((Number) cachedValue).longValue();
-        } else {
-            // 尝试字符串转换
-            try {
-                return Long.parseLong(cachedValue.toString());
-            } catch (NumberFormatException e) {
-                return null;
-            }
+    private void revokeRefreshFamily(String token) {
+        String familyId = jwtUtil.parseToken(token).get(JwtUtil.CLAIM_FAMILY_ID, String.class);
+        if (familyId != null) {
+            redisTemplate.delete(REFRESH_FAMILY_PREFIX + familyId);
+            redisTemplate.opsForValue().set(REVOKED_FAMILY_PREFIX + familyId, "1",
+                ACCESS_TOKEN_TTL_SECONDS, TimeUnit.SECONDS);
         }
     }
     
-    /**
-     * 清除登录状态
-     */
-    private void clearLoginStatus(String token) {
-        redisTemplate.delete("login:" + token);
-    }
-    
     /**
      * 将token加入黑名单
      */
@@ -427,6 +449,14 @@ public class AuthService {
         return redisTemplate.hasKey(key);
     }
     
+    /**
+     * 检查token所属的令牌家族是否已作废
+     */
+    private boolean isFamilyRevoked(Claims claims) {
+        String familyId = claims.get(JwtUtil.CLAIM_FAMILY_ID, String.class);
+        return familyId != null && Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_FAMILY_PREFIX + familyId));
+    }
+    
     /**
      * 记录登录日志
      */
@@ -0,0 +1,96 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.AuthUserDetails;
+import com.example.auth.permission.PermissionEngine;
+import com.example.common.redis.EncoderSupport;
+import com.example.common.redis.RedisValueEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户详情缓存的二进制编码
+ * 权限位序号只在本实例有效，因此只写入角色编码，读取时由权限引擎重新编译；
+ * 缓存只供JWT请求授权使用，不写入密码哈希（版本1曾写入，读取时跳过）
+ */
+@Component
+public class AuthUserDetailsRedisEncoder implements RedisValueEncoder<AuthUserDetails> {
+
+    public static final int TYPE_ID = 2;
+
+    private static final int VERSION = 2;
+
+    private static final int ENABLED = 1;
+    private static final int ACCOUNT_NON_EXPIRED = 1 << 1;
+    private static final int ACCOUNT_NON_LOCKED = 1 << 2;
+    private static final int CREDENTIALS_NON_EXPIRED = 1 << 3;
+
+    @Autowired
+    private PermissionEngine permissionEngine;
+
+    @Override
+    public int typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    @Override
+    public Class<AuthUserDetails> type() {
+        return AuthUserDetails.class;
+    }
+
+    @Override
+    public void write(AuthUserDetails userDetails, DataOutput out) throws IOException {
+        EncoderSupport.writeLong(out, userDetails.getUserId());
+        EncoderSupport.writeString(out, userDetails.getUsername());
+
+        int flags = 0;
+        flags |= userDetails.isEnabled() ? ENABLED : 0;
+        flags |= userDetails.isAccountNonExpired() ? ACCOUNT_NON_EXPIRED : 0;
+        flags |= userDetails.isAccountNonLocked() ? ACCOUNT_NON_LOCKED : 0;
+        flags |= userDetails.isCredentialsNonExpired() ? CREDENTIALS_NON_EXPIRED : 0;
+        out.writeByte(flags);
+
+        Set<String> roleCodes = userDetails.getPermissions().getRoleCodes();
+        out.writeShort(roleCodes.size());
+        for (String roleCode : roleCodes) {
+            out.writeUTF(roleCode);
+        }
+    }
+
+    @Override
+    public AuthUserDetails read(DataInput in, int version) throws IOException {
+        Long userId = EncoderSupport.readLong(in);
+        String username = EncoderSupport.readString(in);
+        if (version < 2) {
+            EncoderSupport.readString(in);
+        }
+        int flags = in.readUnsignedByte();
+
+        int roleCount = in.readUnsignedShort();
+        List<String> roleCodes = new ArrayList<>(roleCount);
+        for (int i = 0; i < roleCount; i++) {
+            roleCodes.add(in.readUTF());
+        }
+
+        return AuthUserDetails.builder()
+            .userId(userId)
+            .username(username)
+            .enabled((flags & ENABLED) != 0)
+            .accountNonExpired((flags & ACCOUNT_NON_EXPIRED) != 0)
+            .accountNonLocked((flags & ACCOUNT_NON_LOCKED) != 0)
+            .credentialsNonExpired((flags & CREDENTIALS_NON_EXPIRED) != 0)
+            .permissions(permissionEngine.compile(roleCodes))
+            .build();
+    }
+}
@@ -1,29 +1,35 @@
 package com.example.auth.service;
 
 import com.example.auth.entity.AuthUserDetails;
-import com.example.auth.entity.Role;
 import com.example.auth.entity.User;
+import com.example.auth.permission.PermissionEngine;
 import com.example.auth.repository.UserRepository;
+import com.example.common.util.GatewayCacheInvalidator;
+import com.example.common.util.PasswordHashingExecutor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * 自定义用户详情服务
  */
 @Service
 @Transactional
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -31,6 +37,24 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private PermissionEngine permissionEngine;
+    
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+    
+    /**
+     * 用户详情缓存依赖本服务加载数据，延迟获取以避免循环依赖
+     */
+    @Autowired
+    private ObjectProvider<UserDetailsCache> userDetailsCache;
+    
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -51,6 +75,33 @@ public class CustomUserDetailsService implements UserDetailsService {
         throw new UsernameNotFoundException("用户不存在: " + username);
     }
     
+    /**
+     * 登录成功后以当前强度重新哈希的密码（由DaoAuthenticationProvider在需要升级时调用）
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword, LocalDateTime.now());
+        System.out.println("密码哈希已升级 - 用户名: " + user.getUsername());
+        
+        // 缓存中仍是旧哈希，清除后各实例重新从数据库加载
+        UserDetailsCache cache = userDetailsCache.getIfAvailable();
+        if (cache != null) {
+            cache.evict(user.getUsername());
+        }
+        
+        AuthUserDetails details = (AuthUserDetails) user;
+        return AuthUserDetails.builder()
+                .userId(details.getUserId())
+                .username(details.getUsername())
+                .password(newPassword)
+                .enabled(details.isEnabled())
+                .accountNonExpired(details.isAccountNonExpired())
+                .accountNonLocked(details.isAccountNonLocked())
+                .credentialsNonExpired(details.isCredentialsNonExpired())
+                .permissions(details.getPermissions())
+                .build();
+    }
+    
     /**
      * 创建默认admin用户
      */
@@ -75,27 +126,30 @@ public class CustomUserDetailsService implements UserDetailsService {
         adminUser.setUpdatedAt(LocalDateTime.now());
         
         // 保存到数据库
-        return userRepository.save(adminUser);
+        User savedAdmin = userRepository.save(adminUser);
+        availabilityIndex.markTaken(savedAdmin.getUsername(), savedAdmin.getEmail());
+        afterCommit(() -> gatewayCacheInvalidator.invalidate("/user/check-username", "/user/check-email"));
+        return savedAdmin;
     }
     
     /**
      * 注册新用户
      */
     public AuthUserDetails registerUser(String username, String password, String email) {
-        // 检查用户名是否已存在
-        if (userRepository.existsByUsername(username)) {
+        // 检查用户名是否已存在（占用索引判断一定可用时不查询数据库）
+        if (availabilityIndex.mightBeTakenUsername(username) && userRepository.existsByUsername(username)) {
             throw new RuntimeException("用户名已存在");
         }
         
         // 检查邮箱是否已存在
-        if (userRepository.existsByEmail(email)) {
+        if (availabilityIndex.mightBeTakenEmail(email) && userRepository.existsByEmail(email)) {
             throw new RuntimeException("邮箱已存在");
         }
         
         // 创建新用户实体
         User newUser = new User();
         newUser.setUsername(username);
-        newUser.setPassword(passwordEncoder.encode(password)); // 使用密码编码器
+        newUser.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(password))); // 在密码哈希执行器中编码
         newUser.setEmail(email);
         newUser.setRole("USER");
         newUser.setEnabled(true);
@@ -105,8 +159,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         newUser.setCreatedAt(LocalDateTime.now());
         newUser.setUpdatedAt(LocalDateTime.now());
         
-        // 保存到数据库
-        User savedUser = userRepository.save(newUser);
+        // 保存到数据库，索引消息未同步到时由唯一约束兜底
+        User savedUser;
+        try {
+            savedUser = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("用户名或邮箱已存在");
+        }
+        availabilityIndex.markTaken(username, email);
+        // 网关缓存了用户名/邮箱可用性检查结果，提交后通知失效
+        afterCommit(() -> gatewayCacheInvalidator.invalidate("/user/check-username", "/user/check-email"));
         
         System.out.println("用户注册成功 - 用户名: " + username + ", 用户ID: " + savedUser.getId() + ", 邮箱: " + email);
         
@@ -122,27 +184,10 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findAll();
     }
     
-    /**
-     * 更新用户登录信息
-     */
-    public void updateLoginInfo(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.incrementLoginCount();
-            userRepository.save(user);
-        }
-    }
-    
     /**
      * 将User实体转换为AuthUserDetails
      */
     private AuthUserDetails convertToAuthUserDetails(User user) {
-        // 创建角色集合
-        Role role = new Role(user.getRole().equals("ADMIN") ? "管理员" : "用户", user.getRole());
-        Set<Role> roles = new HashSet<>();
-        roles.add(role);
-        
         return AuthUserDetails.builder()
                 .userId(user.getId())
                 .username(user.getUsername())
@@ -151,7 +196,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .accountNonExpired(user.getAccountNonExpired())
                 .accountNonLocked(user.getAccountNonLocked())
                 .credentialsNonExpired(user.getCredentialsNonExpired())
-                .roles(roles)
+                .permissions(permissionEngine.compile(Collections.singleton(user.getRole())))
                 .build();
     }
     
@@ -170,4 +215,20 @@ public class CustomUserDetailsService implements UserDetailsService {
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 事务提交后执行（没有事务时立即执行），避免提交前被并发请求读回旧数据重新缓存
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录失败次数限制
+ * 失败计数在Redis中通过脚本原子自增并刷新过期时间；已锁定的（用户名, IP）在本地缓存到锁定结束，
+ * 锁定期间的登录请求直接拒绝，不再访问Redis，也不进行BCrypt计算
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    public static final String LOGIN_ATTEMPTS_PREFIX = "login_attempts:";
+    public static final int MAX_LOGIN_ATTEMPTS = 5;
+    public static final int LOCKOUT_DURATION_MINUTES = 30;
+
+    private static final int LOCAL_MAX_SIZE = 100_000;
+
+    // 失败计数自增并重置锁定时间
+    private static final DefaultRedisScript<Long> RECORD_FAILURE_SCRIPT = new DefaultRedisScript<>(
+        "local count = redis.call('incr', KEYS[1])\n" +
+        "redis.call('expire', KEYS[1], ARGV[1])\n" +
+        "return count", Long.class);
+
+    // 已达上限时返回剩余锁定毫秒数，否则返回0
+    private static final DefaultRedisScript<Long> LOCK_REMAINING_SCRIPT = new DefaultRedisScript<>(
+        "local count = tonumber(redis.call('get', KEYS[1]))\n" +
+        "if count and count >= tonumber(ARGV[1]) then\n" +
+        "    return redis.call('pttl', KEYS[1])\n" +
+        "end\n" +
+        "return 0", Long.class);
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 本地锁定缓存：值为锁定结束前的剩余纳秒数
+     */
+    private Cache<String, Long> lockedAttempts;
+
+    private final LongAdder locallyRejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        lockedAttempts = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfter(new Expiry<String, Long>() {
+                @Override
+                public long expireAfterCreate(String key, Long remainingNanos, long currentTime) {
+                    return remainingNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Long remainingNanos, long currentTime, long currentDuration) {
+                    return remainingNanos;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Long remainingNanos, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    /**
+     * 检查是否已锁定，锁定时抛出异常
+     */
+    public void checkLocked(String username, String clientIp) {
+        String key = buildKey(username, clientIp);
+        if (lockedAttempts.getIfPresent(key) != null) {
+            locallyRejected.increment();
+            throw lockedException();
+        }
+
+        Long remainingMillis = redisTemplate.execute(LOCK_REMAINING_SCRIPT,
+            Collections.singletonList(key), MAX_LOGIN_ATTEMPTS);
+        if (remainingMillis != null && remainingMillis != 0) {
+            // pttl为-1表示未设置过期时间，按完整锁定时长缓存
+            long remainingNanos = remainingMillis > 0
+                ? TimeUnit.MILLISECONDS.toNanos(remainingMillis)
+                : TimeUnit.MINUTES.toNanos(LOCKOUT_DURATION_MINUTES);
+            lockedAttempts.put(key, remainingNanos);
+            throw lockedException();
+        }
+    }
+
+    /**
+     * 记录一次登录失败，达到上限时在本地缓存锁定状态
+     */
+    public void recordFailure(String username, String clientIp) {
+        String key = buildKey(username, clientIp);
+        Long attempts = redisTemplate.execute(RECORD_FAILURE_SCRIPT,
+            Collections.singletonList(key), TimeUnit.MINUTES.toSeconds(LOCKOUT_DURATION_MINUTES));
+        if (attempts != null && attempts >= MAX_LOGIN_ATTEMPTS) {
+            lockedAttempts.put(key, TimeUnit.MINUTES.toNanos(LOCKOUT_DURATION_MINUTES));
+        }
+    }
+
+    /**
+     * 构建失败计数键
+     */
+    public String buildKey(String username, String clientIp) {
+        return LOGIN_ATTEMPTS_PREFIX + username + ":" + clientIp;
+    }
+
+    /**
+     * 本地直接拒绝的次数
+     */
+    public long getLocallyRejected() {
+        return locallyRejected.sum();
+    }
+
+    /**
+     * 本地缓存的锁定数量
+     */
+    public long getLockedCount() {
+        return lockedAttempts.estimatedSize();
+    }
+
+    private RuntimeException lockedException() {
+        return new RuntimeException("登录失败次数过多，账户已被锁定" + LOCKOUT_DURATION_MINUTES + "分钟");
+    }
+}
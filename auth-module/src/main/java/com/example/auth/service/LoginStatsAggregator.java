@@ -0,0 +1,151 @@
+package com.example.auth.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录统计写后聚合器
+ * 登录时只在内存中累加（用户ID, 最近登录时间, 登录次数增量），由后台线程定期以JDBC批量更新写入数据库，
+ * 登录请求不再等待数据库写入；应用关闭时会写出剩余数据
+ */
+@Component
+public class LoginStatsAggregator {
+
+    private static final String UPDATE_SQL =
+        "UPDATE users SET last_login_at = ?, login_count = login_count + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${auth.login-stats.flush-interval:5s}")
+    private Duration flushInterval;
+
+    @Value("${auth.login-stats.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Long, PendingLogin> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-stats-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        // 关闭前写出剩余的登录统计
+        flush();
+    }
+
+    /**
+     * 记录一次成功登录
+     */
+    public void record(Long userId, LocalDateTime loginTime) {
+        if (userId == null) {
+            return;
+        }
+        pending.merge(userId, new PendingLogin(loginTime, 1), PendingLogin::merge);
+        recorded.incrementAndGet();
+    }
+
+    /**
+     * 将缓冲的登录统计批量写入数据库
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 逐个移除，移除后的新登录会进入新的缓冲项，不会丢失
+        List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        for (Long userId : pending.keySet()) {
+            PendingLogin login = pending.remove(userId);
+            if (login == null) {
+                continue;
+            }
+            batch.add(new Object[] {Timestamp.valueOf(login.lastLoginAt), login.count, userId});
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            flushedRows.addAndGet(batch.size());
+        } catch (Exception e) {
+            flushFailures.incrementAndGet();
+            System.err.println("Failed to flush login stats: " + e.getMessage());
+            // 写入失败时放回缓冲，下次刷新重试
+            for (Object[] row : batch) {
+                PendingLogin login = new PendingLogin(((Timestamp) row[0]).toLocalDateTime(), (Integer) row[1]);
+                pending.merge((Long) row[2], login, PendingLogin::merge);
+            }
+        }
+    }
+
+    /**
+     * 获取聚合统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingUsers", pending.size());
+        stats.put("recordedLogins", recorded.get());
+        stats.put("flushedRows", flushedRows.get());
+        stats.put("flushFailures", flushFailures.get());
+        return stats;
+    }
+
+    /**
+     * 单个用户待写入的登录统计
+     */
+    private static class PendingLogin {
+        private final LocalDateTime lastLoginAt;
+        private final int count;
+
+        PendingLogin(LocalDateTime lastLoginAt, int count) {
+            this.lastLoginAt = lastLoginAt;
+            this.count = count;
+        }
+
+        PendingLogin merge(PendingLogin other) {
+            LocalDateTime latest = lastLoginAt.isAfter(other.lastLoginAt) ? lastLoginAt : other.lastLoginAt;
+            return new PendingLogin(latest, count + other.count);
+        }
+    }
+}
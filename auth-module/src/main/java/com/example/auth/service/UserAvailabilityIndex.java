@@ -0,0 +1,17 @@
+package com.example.auth.service;
+
+import com.example.common.util.BaseUserAvailabilityIndex;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户名/邮箱占用索引，启动时从users表重建，配置前缀为auth.availability
+ */
+@Component
+public class UserAvailabilityIndex extends BaseUserAvailabilityIndex {
+
+    private static final String SELECT_TAKEN_SQL = "SELECT username, email FROM users";
+
+    public UserAvailabilityIndex() {
+        super(SELECT_TAKEN_SQL, "auth.availability");
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.AuthUserDetails;
+import com.example.auth.permission.PermissionEngine;
+import com.example.auth.permission.PermissionSet;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 用户详情两级缓存
+ * 一级为进程内Caffeine缓存，二级为Redis；均未命中时才查询数据库
+ * 用户密码、角色或状态变更时调用evict，通过Redis发布/订阅通知所有实例清除本地缓存
+ * 缓存只用于JWT请求的授权，不保存密码哈希；登录时由DaoAuthenticationProvider直接从数据库加载并校验密码
+ * Redis中只保存角色编码，本地缓存的权限位集合在权限规则重新加载后按当前索引重新编译
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final String CACHE_PREFIX = "auth:user_details:";
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private PermissionEngine permissionEngine;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Value("${auth.user-details-cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    /**
+     * 本地缓存有效期，作为失效消息丢失时的兜底
+     */
+    @Value("${auth.user-details-cache.local-ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${auth.user-details-cache.redis-ttl:30m}")
+    private Duration redisTtl;
+
+    @Value("${auth.user-details-cache.invalidation-channel:auth:user_details:invalidate}")
+    private String invalidationChannel;
+
+    private Cache<String, AuthUserDetails> localCache;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+
+        // 订阅其他实例发布的失效消息
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(
+            (message, pattern) -> localCache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(invalidationChannel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * 获取用户详情，依次查询本地缓存、Redis和数据库
+     */
+    public AuthUserDetails get(String username) {
+        AuthUserDetails cached = localCache.getIfPresent(username);
+        if (cached != null) {
+            if (permissionEngine.isCurrent(cached.getPermissions())) {
+                return cached;
+            }
+            // 权限规则已重新加载，按当前索引重新编译，已撤销的权限立即失效
+            AuthUserDetails recompiled = copyWithoutPassword(cached,
+                permissionEngine.compile(cached.getPermissions().getRoleCodes()));
+            localCache.put(username, recompiled);
+            return recompiled;
+        }
+
+        AuthUserDetails userDetails = loadFromRedis(username);
+        if (userDetails == null) {
+            AuthUserDetails loaded = (AuthUserDetails) userDetailsService.loadUserByUsername(username);
+            userDetails = copyWithoutPassword(loaded, loaded.getPermissions());
+            saveToRedis(userDetails);
+        }
+        localCache.put(username, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * 清除用户详情缓存并通知其他实例
+     * 在事务中调用时推迟到提交之后执行，避免其他请求在提交前把旧数据重新写回缓存
+     */
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(username);
+                }
+            });
+        } else {
+            evictNow(username);
+        }
+    }
+
+    private void evictNow(String username) {
+        localCache.invalidate(username);
+        try {
+            redisTemplate.delete(CACHE_PREFIX + username);
+            stringRedisTemplate.convertAndSend(invalidationChannel, username);
+        } catch (Exception e) {
+            // Redis不可用时依赖本地缓存有效期兜底
+            System.err.println("清除用户详情缓存失败: " + username + ", 错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取本地缓存统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", localCache.estimatedSize());
+        result.put("hitRate", localCache.stats().hitRate());
+        result.put("hitCount", localCache.stats().hitCount());
+        result.put("missCount", localCache.stats().missCount());
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AuthUserDetails loadFromRedis(String username) {
+        try {
+            Object value = redisTemplate.opsForValue().get(CACHE_PREFIX + username);
+            if (value instanceof AuthUserDetails) {
+                return (AuthUserDetails) value;
+            }
+            if (value instanceof Map) {
+                return fromSnapshot((Map<String, Object>) value);
+            }
+        } catch (Exception e) {
+            System.err.println("读取用户详情缓存失败: " + username + ", 错误: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private void saveToRedis(AuthUserDetails userDetails) {
+        try {
+            redisTemplate.opsForValue().set(CACHE_PREFIX + userDetails.getUsername(), userDetails, redisTtl);
+        } catch (Exception e) {
+            System.err.println("写入用户详情缓存失败: " + userDetails.getUsername() + ", 错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取升级前以Map快照格式保存的用户详情，新数据由AuthUserDetailsRedisEncoder编码
+     */
+    @SuppressWarnings("unchecked")
+    private AuthUserDetails fromSnapshot(Map<String, Object> snapshot) {
+        Object roleValue = snapshot.get("roles");
+        Collection<String> roles = Collections.emptyList();
+        if (roleValue instanceof Map) {
+            // 兼容旧格式：角色编码到名称的映射
+            roles = ((Map<String, String>) roleValue).keySet();
+        } else if (roleValue instanceof Collection) {
+            roles = (Collection<String>) roleValue;
+        }
+
+        Number userId = (Number) snapshot.get("userId");
+        return AuthUserDetails.builder()
+            .userId(userId != null ? userId.longValue() : null)
+            .username((String) snapshot.get("username"))
+            .enabled(Boolean.TRUE.equals(snapshot.get("enabled")))
+            .accountNonExpired(Boolean.TRUE.equals(snapshot.get("accountNonExpired")))
+            .accountNonLocked(Boolean.TRUE.equals(snapshot.get("accountNonLocked")))
+            .credentialsNonExpired(Boolean.TRUE.equals(snapshot.get("credentialsNonExpired")))
+            .permissions(permissionEngine.compile(roles))
+            .build();
+    }
+
+    /**
+     * 去掉密码哈希并使用指定权限位集合的副本
+     */
+    private static AuthUserDetails copyWithoutPassword(AuthUserDetails userDetails, PermissionSet permissions) {
+        return AuthUserDetails.builder()
+            .userId(userDetails.getUserId())
+            .username(userDetails.getUsername())
+            .enabled(userDetails.isEnabled())
+            .accountNonExpired(userDetails.isAccountNonExpired())
+            .accountNonLocked(userDetails.isAccountNonLocked())
+            .credentialsNonExpired(userDetails.isCredentialsNonExpired())
+            .permissions(permissions)
+            .build();
+    }
+}
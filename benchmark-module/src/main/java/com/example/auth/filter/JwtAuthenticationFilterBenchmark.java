@@ -0,0 +1,78 @@
+package com.example.auth.filter;
+
+import com.example.auth.entity.AuthUserDetails;
+import com.example.auth.service.UserDetailsCache;
+import com.example.benchmark.BenchmarkSupport;
+import com.example.benchmark.FakeRedisTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * auth-module的JwtAuthenticationFilter.doFilterInternal（与被测类同包以调用protected方法）
+ * 用户详情缓存替换为固定返回值，相当于本地缓存命中；黑名单查询替换为内存实现；过滤器中的调试打印会执行但输出被丢弃
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceStdout();
+
+        AuthUserDetails userDetails = AuthUserDetails.builder()
+            .userId(10001L)
+            .username("benchmark")
+            .password("")
+            .build();
+        UserDetailsCache userDetailsCache = new UserDetailsCache() {
+            @Override
+            public AuthUserDetails get(String username) {
+                return userDetails;
+            }
+        };
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", BenchmarkSupport.jwtUtil());
+        ReflectionTestUtils.setField(filter, "userDetailsCache", userDetailsCache);
+        ReflectionTestUtils.setField(filter, "redisTemplate", FakeRedisTemplates.withoutBlacklist());
+        authorization = "Bearer " + BenchmarkSupport.jwtUtil().generateToken("benchmark", 10001L);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/users");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilterInternal(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
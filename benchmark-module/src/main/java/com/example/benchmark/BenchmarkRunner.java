@@ -0,0 +1,32 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 默认运行全部基准并启用GC分析器，结果中的gc.alloc.rate.norm即每次操作分配的字节数；
+ * 结果同时写入target/jmh-result.json，便于与上次结果对比。支持JMH命令行参数，如：-wi 2 -i 3 JwtUtil
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh-result.json");
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("com\\.example\\..*Benchmark");
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
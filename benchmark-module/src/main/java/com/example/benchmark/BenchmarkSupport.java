@@ -0,0 +1,42 @@
+package com.example.benchmark;
+
+import com.example.common.util.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * 基准测试公共方法
+ */
+public final class BenchmarkSupport {
+
+    public static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private BenchmarkSupport() {}
+
+    /**
+     * 创建与默认配置一致的JwtUtil（不启动Spring容器）
+     */
+    public static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        return jwtUtil;
+    }
+
+    /**
+     * 丢弃System.out输出：被测代码中的调试打印仍会执行格式化，但不写终端，避免淹没JMH输出
+     */
+    public static void silenceStdout() {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+}
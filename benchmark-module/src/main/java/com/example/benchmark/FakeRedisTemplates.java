@@ -0,0 +1,67 @@
+package com.example.benchmark;
+
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 内存版Redis模板，只实现被测过滤器用到的操作并立即返回，测得的是过滤器自身开销（不含网络往返）
+ */
+public final class FakeRedisTemplates {
+
+    private FakeRedisTemplates() {}
+
+    /**
+     * 黑名单查询始终返回不存在
+     */
+    public static ReactiveRedisTemplate<String, Object> reactiveWithoutBlacklist() {
+        ReactiveRedisConnectionFactory connectionFactory = (ReactiveRedisConnectionFactory) Proxy.newProxyInstance(
+            FakeRedisTemplates.class.getClassLoader(),
+            new Class<?>[]{ReactiveRedisConnectionFactory.class},
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException("基准测试不访问Redis: " + method.getName());
+            });
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+            .<String, Object>newSerializationContext(StringRedisSerializer.UTF_8)
+            .build();
+        return new ReactiveRedisTemplate<String, Object>(connectionFactory, context) {
+            @Override
+            public Mono<Boolean> hasKey(String key) {
+                return Mono.just(Boolean.FALSE);
+            }
+        };
+    }
+
+    /**
+     * 黑名单和作废令牌家族查询始终返回不存在
+     */
+    public static RedisTemplate<String, Object> withoutBlacklist() {
+        return new RedisTemplate<String, Object>() {
+            @Override
+            public Long countExistingKeys(Collection<String> keys) {
+                return 0L;
+            }
+        };
+    }
+
+    /**
+     * 限流脚本始终返回放行
+     */
+    public static RedisTemplate<String, Object> rateLimitAlwaysAllowed() {
+        return new RedisTemplate<String, Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+                return (T) new Long[]{1L, 99L};
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import com.example.common.util.JwtUtil;
+import com.example.gateway.filter.AuthenticationFilter;
+import com.example.gateway.filter.RateLimitFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关认证与限流过滤器（下游链为空实现，Redis为内存替身）
+ * 每次操作都会新建Mock请求，mockExchange给出这部分基线，比较时应扣除
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayFilterBenchmark {
+
+    private static final GatewayFilterChain EMPTY_CHAIN = exchange -> Mono.empty();
+
+    private AuthenticationFilter authenticationFilter;
+
+    private RateLimitFilter rateLimitFilter;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkSupport.jwtUtil();
+        authorization = "Bearer " + jwtUtil.generateToken("benchmark", 10001L);
+
+        authenticationFilter = new AuthenticationFilter();
+        ReflectionTestUtils.setField(authenticationFilter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(authenticationFilter, "reactiveRedisTemplate",
+            FakeRedisTemplates.reactiveWithoutBlacklist());
+
+        rateLimitFilter = new RateLimitFilter();
+        ReflectionTestUtils.setField(rateLimitFilter, "redisTemplate", FakeRedisTemplates.rateLimitAlwaysAllowed());
+    }
+
+    private ServerWebExchange newExchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/user/profile")
+            .header(HttpHeaders.AUTHORIZATION, authorization)
+            .header("X-Forwarded-For", "203.0.113.10"));
+    }
+
+    @Benchmark
+    public ServerWebExchange mockExchange() {
+        return newExchange();
+    }
+
+    @Benchmark
+    public Void authenticationFilter() {
+        return authenticationFilter.filter(newExchange(), EMPTY_CHAIN).block();
+    }
+
+    @Benchmark
+    public Void rateLimitFilter() {
+        return rateLimitFilter.filter(newExchange(), EMPTY_CHAIN).block();
+    }
+}
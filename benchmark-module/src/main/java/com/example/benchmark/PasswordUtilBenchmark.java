@@ -0,0 +1,47 @@
+package com.example.benchmark;
+
+import com.example.common.util.PasswordUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordUtil密码校验（未启动Spring时在当前线程计算，不经过密码哈希执行器）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordUtilBenchmark {
+
+    private static final String PASSWORD = "admin123";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        PasswordUtil.setPasswordEncoder(new BCryptPasswordEncoder(strength));
+        encoded = PasswordUtil.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return PasswordUtil.matches(PASSWORD, encoded);
+    }
+}
@@ -12,10 +12,10 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,6 +45,8 @@ public class BaseSecurityConfig {
         String[] pathArray = permitAllPaths.toArray(new String[0]);
 
         http.csrf().disable()
+                // 按IP访问规则拦截被拒绝的地址
+                .addFilterBefore(new IpAccessFilter(), BasicAuthenticationFilter.class)
                 .authorizeRequests()
                 // 动态配置无需认证的路径
                 .antMatchers(pathArray).permitAll()
@@ -83,13 +85,4 @@ public class BaseSecurityConfig {
         return new InMemoryUserDetailsManager(userDetailsList);
     }
 
-    /**
-     * 密码编码器
-     */
-    @Bean
-    @ConditionalOnMissingBean(PasswordEncoder.class)
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 全局异常处理器
@@ -61,6 +62,15 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(ErrorCode.PARAM_ERROR.getCode(), message);
     }
     
+    /**
+     * 处理任务被拒绝异常（如密码哈希队列已满）
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiResponse<String> handleRejectedExecutionException(RejectedExecutionException e) {
+        logger.warn("请求被拒绝: {}", e.getMessage());
+        return ApiResponse.error(ErrorCode.SERVICE_BUSY.getCode(), e.getMessage());
+    }
     
     /**
      * 处理业务异常
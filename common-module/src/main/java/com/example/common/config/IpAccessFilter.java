@@ -0,0 +1,47 @@
+package com.example.common.config;
+
+import com.example.common.util.ServerConfigUtils;
+import com.example.common.web.ApiResponse;
+import com.example.common.web.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * IP访问控制过滤器
+ * 按ServerConfigUtils中已编译的IP访问规则判断客户端地址，拒绝列表中的地址直接返回403
+ * 由BaseSecurityConfig加入安全过滤器链，不注册为Spring Bean（网关为响应式环境，没有Servlet API）
+ */
+public class IpAccessFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IpAccessFilter.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String remoteAddr = request.getRemoteAddr();
+        if (ServerConfigUtils.getIpAccessRules().isPermitted(remoteAddr)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.warn("IP地址禁止访问 - IP: {}, 路径: {}", remoteAddr, request.getRequestURI());
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(
+            ApiResponse.error(ErrorCode.FORBIDDEN.getCode(), "IP地址禁止访问")));
+    }
+}
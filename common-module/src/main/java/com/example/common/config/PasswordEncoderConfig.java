@@ -0,0 +1,68 @@
+package com.example.common.config;
+
+import com.example.common.util.PasswordHashCalibrator;
+import com.example.common.util.PasswordUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 统一密码编码器配置
+ * 使用DelegatingPasswordEncoder，新密码以{bcrypt}前缀保存，历史无前缀的BCrypt密码仍可校验；
+ * 强度未配置时按目标校验延迟在启动时校准。强度提高后，用户下次登录成功时会自动以新强度重新哈希
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.security.crypto.password.DelegatingPasswordEncoder")
+public class PasswordEncoderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * BCrypt强度，0表示启动时校准
+     */
+    @Value("${app.password-hashing.strength:0}")
+    private int strength;
+
+    @Value("${app.password-hashing.target-latency:250ms}")
+    private Duration targetLatency;
+
+    @Value("${app.password-hashing.min-strength:10}")
+    private int minStrength;
+
+    @Value("${app.password-hashing.max-strength:14}")
+    private int maxStrength;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        int resolvedStrength = strength;
+        if (resolvedStrength <= 0) {
+            long startTime = System.currentTimeMillis();
+            resolvedStrength = PasswordHashCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+            logger.info("BCrypt强度校准完成 - 目标延迟: {}, 强度: {}, 耗时: {}ms",
+                targetLatency, resolvedStrength, System.currentTimeMillis() - startTime);
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(resolvedStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT_ID, bcrypt);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        // 兼容没有{id}前缀的历史密码
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        PasswordUtil.setPasswordEncoder(passwordEncoder);
+        logger.info("密码编码器已初始化 - 算法: {}, 强度: {}", BCRYPT_ID, resolvedStrength);
+        return passwordEncoder;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.common.config;
 
+import com.example.common.redis.RedisValueCodec;
+import com.example.common.redis.RedisValueEncoder;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -10,36 +14,56 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Redis配置类
  */
 @Configuration
 public class RedisConfig {
 
+    /**
+     * 值编码后达到该字节数时使用LZ4压缩，0表示不压缩
+     */
+    @Value("${app.redis.codec.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    /**
+     * 是否以二进制格式写入，关闭后全部写JSON（读取两种格式都支持）
+     */
+    @Value("${app.redis.codec.write-binary:true}")
+    private boolean writeBinary;
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       ObjectProvider<RedisValueEncoder<?>> encoders) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // 使用Jackson2JsonRedisSerializer来序列化和反序列化redis的value值
+        // 未注册二进制编码器的类型及升级前的数据仍使用Jackson2JsonRedisSerializer
         Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
         ObjectMapper om = new ObjectMapper();
         om.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
         om.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
         jackson2JsonRedisSerializer.setObjectMapper(om);
 
+        List<RedisValueEncoder<?>> registeredEncoders = encoders.orderedStream().collect(Collectors.toList());
+        RedisValueCodec valueCodec = new RedisValueCodec(jackson2JsonRedisSerializer, registeredEncoders,
+            compressionThreshold, writeBinary);
+
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
         // key采用String的序列化方式
         template.setKeySerializer(stringRedisSerializer);
         // hash的key也采用String的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        // value序列化方式采用jackson
-        template.setValueSerializer(jackson2JsonRedisSerializer);
-        // hash的value序列化方式采用jackson
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        // value序列化方式采用二进制编解码器
+        template.setValueSerializer(valueCodec);
+        // hash的value序列化方式采用二进制编解码器
+        template.setHashValueSerializer(valueCodec);
         template.afterPropertiesSet();
 
         return template;
     }
-}
\ No newline at end of file
+}
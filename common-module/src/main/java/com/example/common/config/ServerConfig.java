@@ -336,6 +336,8 @@ public class ServerConfig {
     public static class Security {
         private String allowedIp = "127.0.0.1";
         private String[] allowedIps = {"127.0.0.1", "localhost"};
+        private String[] deniedIps = {};
+        private boolean enforceAllowList = false;
         
         public String getAllowedIp() {
             return allowedIp;
@@ -352,5 +354,21 @@ public class ServerConfig {
         public void setAllowedIps(String[] allowedIps) {
             this.allowedIps = allowedIps;
         }
+        
+        public String[] getDeniedIps() {
+            return deniedIps;
+        }
+        
+        public void setDeniedIps(String[] deniedIps) {
+            this.deniedIps = deniedIps;
+        }
+        
+        public boolean isEnforceAllowList() {
+            return enforceAllowList;
+        }
+        
+        public void setEnforceAllowList(boolean enforceAllowList) {
+            this.enforceAllowList = enforceAllowList;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.example.common.redis;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis值的二进制编解码器
+ * 首字节为格式标记：整数直接写十进制文本（与原JSON格式相同，Lua脚本参数和INCR计数器依赖这一点），
+ * 字符串和布尔值使用固定标记，注册了RedisValueEncoder的类型写入类型编号和结构版本，
+ * 其余类型回退为原来的JSON格式。编码结果达到阈值时整体使用LZ4压缩。
+ * 标记字节都小于0x09，不会与JSON的首字符冲突，因此升级前写入的JSON值仍可读取
+ */
+public class RedisValueCodec implements RedisSerializer<Object> {
+
+    static final byte STRING = 0x01;
+    static final byte TRUE = 0x02;
+    static final byte FALSE = 0x03;
+    static final byte ENCODED = 0x04;
+    static final byte LZ4 = 0x05;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Long.MIN_VALUE的十进制长度
+     */
+    private static final int MAX_DECIMAL_LENGTH = 20;
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> jsonSerializer;
+
+    private final Map<Class<?>, RedisValueEncoder<?>> encodersByType = new HashMap<>();
+
+    private final RedisValueEncoder<?>[] encodersById = new RedisValueEncoder<?>[256];
+
+    private final int compressionThreshold;
+
+    private final boolean writeBinary;
+
+    private final LZ4Compressor compressor = LZ4_FACTORY.fastCompressor();
+
+    private final LZ4FastDecompressor decompressor = LZ4_FACTORY.fastDecompressor();
+
+    /**
+     * @param jsonSerializer       未注册类型及旧数据使用的JSON序列化器
+     * @param encoders             各模块注册的编码器
+     * @param compressionThreshold 达到该字节数时压缩，0表示不压缩
+     * @param writeBinary          false时全部以未压缩的JSON写入（滚动升级期间旧实例仍需读取时使用），读取不受影响
+     */
+    public RedisValueCodec(RedisSerializer<Object> jsonSerializer, Collection<RedisValueEncoder<?>> encoders,
+                           int compressionThreshold, boolean writeBinary) {
+        this.jsonSerializer = jsonSerializer;
+        this.compressionThreshold = compressionThreshold;
+        this.writeBinary = writeBinary;
+        for (RedisValueEncoder<?> encoder : encoders) {
+            int typeId = encoder.typeId();
+            if (typeId < 1 || typeId > 255) {
+                throw new IllegalArgumentException("Redis值类型编号超出范围: " + typeId);
+            }
+            if (encodersById[typeId] != null) {
+                throw new IllegalStateException("Redis值类型编号重复: " + typeId + " ("
+                    + encodersById[typeId].type().getName() + ", " + encoder.type().getName() + ")");
+            }
+            encodersById[typeId] = encoder;
+            encodersByType.put(encoder.type(), encoder);
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (!writeBinary) {
+            // 旧实例只能读取JSON，压缩标记同样无法识别
+            return jsonSerializer.serialize(value);
+        }
+        byte[] encoded = encode(value);
+        if (compressionThreshold > 0 && encoded.length >= compressionThreshold) {
+            return compress(encoded);
+        }
+        return encoded;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == LZ4) {
+            return decode(decompress(bytes));
+        }
+        return decode(bytes);
+    }
+
+    private byte[] encode(Object value) {
+        Class<?> type = value.getClass();
+        if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+            return Long.toString(((Number) value).longValue()).getBytes(StandardCharsets.US_ASCII);
+        }
+        if (type == String.class) {
+            byte[] text = ((String) value).getBytes(StandardCharsets.UTF_8);
+            byte[] result = new byte[text.length + 1];
+            result[0] = STRING;
+            System.arraycopy(text, 0, result, 1, text.length);
+            return result;
+        }
+        if (type == Boolean.class) {
+            return new byte[] {(Boolean) value ? TRUE : FALSE};
+        }
+
+        RedisValueEncoder<?> encoder = encodersByType.get(type);
+        if (encoder != null) {
+            return encodeWith(encoder, value);
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> byte[] encodeWith(RedisValueEncoder<T> encoder, Object value) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeByte(ENCODED);
+            out.writeByte(encoder.typeId());
+            out.writeByte(encoder.version());
+            encoder.write((T) value, out);
+            out.flush();
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Redis值编码失败: " + encoder.type().getName(), e);
+        }
+    }
+
+    private Object decode(byte[] bytes) {
+        switch (bytes[0]) {
+            case STRING:
+                return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case ENCODED:
+                return decodeWith(bytes);
+            default:
+                Long number = parseDecimal(bytes);
+                return number != null ? number : jsonSerializer.deserialize(bytes);
+        }
+    }
+
+    private Object decodeWith(byte[] bytes) {
+        int typeId = bytes[1] & 0xFF;
+        RedisValueEncoder<?> encoder = encodersById[typeId];
+        if (encoder == null) {
+            throw new SerializationException("未注册的Redis值类型编号: " + typeId);
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3));
+            return encoder.read(in, bytes[2] & 0xFF);
+        } catch (IOException e) {
+            throw new SerializationException("Redis值解码失败: " + encoder.type().getName(), e);
+        }
+    }
+
+    /**
+     * 整数一律读取为Long；不是纯十进制整数或超出Long范围时返回null，交给JSON处理
+     */
+    private static Long parseDecimal(byte[] bytes) {
+        int start = bytes[0] == '-' ? 1 : 0;
+        if (bytes.length == start || bytes.length > MAX_DECIMAL_LENGTH) {
+            return null;
+        }
+        for (int i = start; i < bytes.length; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return null;
+            }
+        }
+        try {
+            return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 格式：LZ4标记 + 原始长度(4字节) + LZ4块；压缩后没有变小时保留原始编码
+     */
+    private byte[] compress(byte[] encoded) {
+        byte[] result = new byte[5 + compressor.maxCompressedLength(encoded.length)];
+        int compressedLength = compressor.compress(encoded, 0, encoded.length, result, 5, result.length - 5);
+        if (compressedLength + 5 >= encoded.length) {
+            return encoded;
+        }
+        ByteBuffer.wrap(result, 0, 5).put(LZ4).putInt(encoded.length);
+        return Arrays.copyOf(result, compressedLength + 5);
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        int originalLength = ByteBuffer.wrap(bytes, 1, 4).getInt();
+        byte[] result = new byte[originalLength];
+        decompressor.decompress(bytes, 5, result, 0, originalLength);
+        return result;
+    }
+}
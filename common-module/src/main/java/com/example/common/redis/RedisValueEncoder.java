@@ -0,0 +1,33 @@
+package com.example.common.redis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Redis值的二进制编码器
+ * 各模块将实现类注册为Spring Bean即可接入RedisValueCodec。typeId在所有模块中必须唯一且不能复用；
+ * 字段变化时递增version，read需要能读取所有仍可能存在于Redis中的旧版本
+ * 已使用的类型编号：1 User（user-module），2 AuthUserDetails（auth-module）
+ */
+public interface RedisValueEncoder<T> {
+
+    /**
+     * 类型编号（1-255），写入每个值的头部
+     */
+    int typeId();
+
+    /**
+     * 当前写入的结构版本（0-255）
+     */
+    int version();
+
+    /**
+     * 可编码的类型（精确匹配，不包含子类）
+     */
+    Class<T> type();
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in, int version) throws IOException;
+}
@@ -0,0 +1,219 @@
+package com.example.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * 用户名/邮箱占用索引
+ * 使用可扩容布隆过滤器记录已占用的用户名和邮箱：过滤器判断不存在时直接认为可用，不访问数据库，
+ * 判断可能存在时再由数据库确认。启动时流式执行初始化查询重建，注册后通过Redis发布/订阅同步到所有实例。
+ * 各模块继承本类并提供初始化查询（依次返回用户名、邮箱两列）和配置前缀，
+ * 配置项为前缀下的expected-users、false-positive-rate和channel
+ */
+public abstract class BaseUserAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaseUserAvailabilityIndex.class);
+
+    /**
+     * MySQL驱动在fetchSize为Integer.MIN_VALUE时逐行流式返回结果，不会一次性加载全表
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final String USERNAME_PREFIX = "username:";
+    private static final String EMAIL_PREFIX = "email:";
+
+    /**
+     * 批量通知时一条消息包含多个以换行分隔的值
+     */
+    private static final String MESSAGE_SEPARATOR = "\n";
+
+    private final String seedSql;
+
+    private final String propertyPrefix;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired
+    private Environment environment;
+
+    private String channel;
+
+    private ScalableBloomFilter usernames;
+
+    private ScalableBloomFilter emails;
+
+    /**
+     * 重建完成前过滤器不完整，所有查询都回退到数据库
+     */
+    private volatile boolean ready;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * @param seedSql        初始化查询，依次返回用户名、邮箱两列
+     * @param propertyPrefix 配置前缀，如user.availability；默认通知频道为前缀中的点替换为冒号再加:taken
+     */
+    protected BaseUserAvailabilityIndex(String seedSql, String propertyPrefix) {
+        this.seedSql = seedSql;
+        this.propertyPrefix = propertyPrefix;
+    }
+
+    @PostConstruct
+    public void init() {
+        int expectedUsers = environment.getProperty(propertyPrefix + ".expected-users", Integer.class, 100000);
+        double falsePositiveRate = environment.getProperty(propertyPrefix + ".false-positive-rate", Double.class, 0.01);
+        channel = environment.getProperty(propertyPrefix + ".channel", propertyPrefix.replace('.', ':') + ":taken");
+        usernames = new ScalableBloomFilter(expectedUsers, falsePositiveRate);
+        emails = new ScalableBloomFilter(expectedUsers, falsePositiveRate);
+
+        // 先订阅再重建，重建期间其他实例的注册消息也会写入过滤器
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(
+            (message, pattern) -> apply(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+
+        Thread rebuildThread = new Thread(this::rebuild, propertyPrefix.replace('.', '-') + "-rebuild");
+        rebuildThread.setDaemon(true);
+        rebuildThread.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * 从数据库流式读取已占用的用户名和邮箱
+     */
+    private void rebuild() {
+        long startTime = System.currentTimeMillis();
+        try {
+            JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+            streamingTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+            streamingTemplate.query(seedSql, rs -> {
+                addLocally(usernames, rs.getString(1));
+                addLocally(emails, rs.getString(2));
+            });
+            ready = true;
+            logger.info("用户名/邮箱占用索引重建完成 - 用户名: {}, 邮箱: {}, 耗时: {}ms",
+                usernames.size(), emails.size(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            // 重建失败时保持未就绪，查询继续走数据库
+            logger.warn("用户名/邮箱占用索引重建失败，将直接查询数据库: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 用户名是否可能已被占用（false表示一定可用）
+     */
+    public boolean mightBeTakenUsername(String username) {
+        return !ready || usernames.mightContain(normalize(username));
+    }
+
+    /**
+     * 邮箱是否可能已被占用（false表示一定可用）
+     */
+    public boolean mightBeTakenEmail(String email) {
+        return !ready || emails.mightContain(normalize(email));
+    }
+
+    /**
+     * 记录新占用的用户名和邮箱，并通知其他实例
+     */
+    public void markTaken(String username, String email) {
+        publish(USERNAME_PREFIX, usernames, username);
+        publish(EMAIL_PREFIX, emails, email);
+    }
+
+    /**
+     * 批量记录新占用的用户名和邮箱，只发布一条以换行分隔的通知消息
+     */
+    public void markTaken(Collection<String> takenUsernames, Collection<String> takenEmails) {
+        StringJoiner message = new StringJoiner(MESSAGE_SEPARATOR);
+        for (String username : takenUsernames) {
+            if (username != null) {
+                addLocally(usernames, username);
+                message.add(USERNAME_PREFIX + username);
+            }
+        }
+        for (String email : takenEmails) {
+            if (email != null) {
+                addLocally(emails, email);
+                message.add(EMAIL_PREFIX + email);
+            }
+        }
+        if (message.length() == 0) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, message.toString());
+        } catch (Exception e) {
+            logger.warn("发布用户名/邮箱占用消息失败: {}个, 错误: {}",
+                takenUsernames.size() + takenEmails.size(), e.getMessage());
+        }
+    }
+
+    private void publish(String prefix, ScalableBloomFilter filter, String value) {
+        if (value == null) {
+            return;
+        }
+        addLocally(filter, value);
+        try {
+            stringRedisTemplate.convertAndSend(channel, prefix + value);
+        } catch (Exception e) {
+            // 其他实例收不到时只会短暂误报可用，注册时仍由数据库唯一约束兜底
+            logger.warn("发布用户名/邮箱占用消息失败: {}, 错误: {}", value, e.getMessage());
+        }
+    }
+
+    private void apply(String message) {
+        for (String entry : message.split(MESSAGE_SEPARATOR)) {
+            if (entry.startsWith(USERNAME_PREFIX)) {
+                addLocally(usernames, entry.substring(USERNAME_PREFIX.length()));
+            } else if (entry.startsWith(EMAIL_PREFIX)) {
+                addLocally(emails, entry.substring(EMAIL_PREFIX.length()));
+            }
+        }
+    }
+
+    private static void addLocally(ScalableBloomFilter filter, String value) {
+        if (value != null && !value.isEmpty()) {
+            filter.put(normalize(value));
+        }
+    }
+
+    /**
+     * 按MySQL默认排序规则的宽松程度归一化：忽略大小写、首尾空白和重音符号，
+     * 归一化只会增加"可能已占用"的判断，不会把已占用的值判为可用
+     */
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.common.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * CIDR地址段匹配器
+ * 将IPv4/IPv6地址段编译为按位分支的基数树（IPv4、IPv6各一棵），编译后不可变、线程安全；
+ * 查询时只按位遍历已解析的地址字节，不产生对象分配
+ *
+ * 支持的写法：单个地址（192.168.1.10、::1）、地址段（10.0.0.0/8、fd00::/8）以及localhost；
+ * IPv4映射的IPv6地址段（如::ffff:10.0.0.0/104）按对应的IPv4地址段编译
+ */
+public final class CidrMatcher {
+
+    private static final int IPV4_BYTES = 4;
+    private static final int IPV6_BYTES = 16;
+
+    /**
+     * IPv4映射地址的固定前缀::ffff:0:0/96
+     */
+    private static final int MAPPED_PREFIX_BITS = 96;
+
+    private final BitTrie ipv4;
+    private final BitTrie ipv6;
+    private final int size;
+
+    private CidrMatcher(BitTrie ipv4, BitTrie ipv6, int size) {
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+        this.size = size;
+    }
+
+    /**
+     * 编译地址段列表，空白项忽略，格式错误时抛出IllegalArgumentException
+     */
+    public static CidrMatcher compile(Collection<String> cidrs) {
+        BitTrie ipv4 = new BitTrie();
+        BitTrie ipv6 = new BitTrie();
+        int size = 0;
+
+        if (cidrs != null) {
+            for (String cidr : cidrs) {
+                if (cidr == null || cidr.trim().isEmpty()) {
+                    continue;
+                }
+                String value = cidr.trim();
+                if ("localhost".equalsIgnoreCase(value)) {
+                    ipv4.insert(new byte[]{127, 0, 0, 1}, 0, 32);
+                    ipv6.insert(parseAddress("::1"), 0, 128);
+                    size += 2;
+                    continue;
+                }
+
+                int slash = value.indexOf('/');
+                String host = slash >= 0 ? value.substring(0, slash) : value;
+                byte[] address = parseAddress(host);
+                if (address == null) {
+                    throw new IllegalArgumentException("无效的IP地址或地址段: " + cidr);
+                }
+
+                int maxBits = address.length * 8;
+                int prefixLength = maxBits;
+                if (slash >= 0) {
+                    try {
+                        prefixLength = Integer.parseInt(value.substring(slash + 1));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("无效的地址段前缀长度: " + cidr);
+                    }
+                    if (prefixLength < 0 || prefixLength > maxBits) {
+                        throw new IllegalArgumentException("无效的地址段前缀长度: " + cidr);
+                    }
+                }
+
+                if (address.length == IPV4_BYTES) {
+                    ipv4.insert(address, 0, prefixLength);
+                } else if (isIpv4Mapped(address) && prefixLength >= MAPPED_PREFIX_BITS) {
+                    // 查询时映射地址按IPv4匹配，规则也需转换到IPv4树
+                    ipv4.insert(address, IPV6_BYTES - IPV4_BYTES, prefixLength - MAPPED_PREFIX_BITS);
+                } else {
+                    ipv6.insert(address, 0, prefixLength);
+                }
+                size++;
+            }
+        }
+
+        return new CidrMatcher(ipv4.trim(), ipv6.trim(), size);
+    }
+
+    /**
+     * 判断地址字节（4字节IPv4或16字节IPv6）是否命中任一地址段
+     * IPv4映射的IPv6地址（::ffff:a.b.c.d）按IPv4匹配
+     */
+    public boolean matches(byte[] address) {
+        if (address == null) {
+            return false;
+        }
+        if (address.length == IPV4_BYTES) {
+            return ipv4.contains(address, 0, 32);
+        }
+        if (address.length == IPV6_BYTES) {
+            if (isIpv4Mapped(address)) {
+                return ipv4.contains(address, 12, 32);
+            }
+            return ipv6.contains(address, 0, 128);
+        }
+        return false;
+    }
+
+    /**
+     * 判断字符串形式的地址是否命中任一地址段，无法解析的地址视为不命中
+     */
+    public boolean matches(String ip) {
+        if (ip == null) {
+            return false;
+        }
+        if ("localhost".equalsIgnoreCase(ip)) {
+            return matches(new byte[]{127, 0, 0, 1});
+        }
+        return matches(parseAddress(ip.trim()));
+    }
+
+    /**
+     * 已编译的地址段数量
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 解析IP地址字面量，不进行DNS解析；不是合法的IPv4/IPv6字面量（含主机名、带区域标识的地址）时返回null
+     */
+    public static byte[] parseAddress(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') >= 0) {
+            return parseIpv6(ip);
+        }
+        return parseIpv4(ip);
+    }
+
+    /**
+     * 解析IPv6字面量，支持一处::压缩以及末尾内嵌的IPv4地址（如::ffff:10.0.0.1）
+     */
+    private static byte[] parseIpv6(String ip) {
+        int doubleColon = ip.indexOf("::");
+        if (doubleColon >= 0 && ip.indexOf("::", doubleColon + 1) >= 0) {
+            return null;
+        }
+        byte[] result = new byte[IPV6_BYTES];
+        if (doubleColon < 0) {
+            return parseGroups(ip, 0, ip.length(), result, true) == IPV6_BYTES ? result : null;
+        }
+
+        // ::前的分组从头写入，::后的分组靠末尾对齐，中间补零（::至少代表一个分组）
+        byte[] tail = new byte[IPV6_BYTES];
+        int headBytes = parseGroups(ip, 0, doubleColon, result, false);
+        int tailBytes = parseGroups(ip, doubleColon + 2, ip.length(), tail, true);
+        if (headBytes < 0 || tailBytes < 0 || headBytes + tailBytes > IPV6_BYTES - 2) {
+            return null;
+        }
+        System.arraycopy(tail, 0, result, IPV6_BYTES - tailBytes, tailBytes);
+        return result;
+    }
+
+    /**
+     * 解析[from, to)内以冒号分隔的十六进制分组，位于地址末尾时最后一组可以是点分IPv4地址；
+     * 返回写入的字节数，格式错误时返回-1
+     */
+    private static int parseGroups(String ip, int from, int to, byte[] out, boolean ipv4Tail) {
+        if (from == to) {
+            return 0;
+        }
+        int written = 0;
+        int start = from;
+        while (true) {
+            int end = ip.indexOf(':', start);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            if (ipv4Tail && end == to) {
+                int dot = ip.indexOf('.', start);
+                if (dot >= 0 && dot < to) {
+                    byte[] ipv4 = parseIpv4(ip.substring(start, to));
+                    if (ipv4 == null || written + IPV4_BYTES > IPV6_BYTES) {
+                        return -1;
+                    }
+                    System.arraycopy(ipv4, 0, out, written, IPV4_BYTES);
+                    return written + IPV4_BYTES;
+                }
+            }
+
+            int length = end - start;
+            if (length == 0 || length > 4 || written + 2 > IPV6_BYTES) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = hexDigit(ip.charAt(i));
+                if (digit < 0) {
+                    return -1;
+                }
+                value = (value << 4) | digit;
+            }
+            out[written++] = (byte) (value >>> 8);
+            out[written++] = (byte) value;
+
+            if (end == to) {
+                return written;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * 只接受ASCII十六进制字符（Character.digit会接受全角等其他数字字符）
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static byte[] parseIpv4(String ip) {
+        byte[] result = new byte[IPV4_BYTES];
+        int part = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c == '.') {
+                if (digits == 0 || part == IPV4_BYTES - 1) {
+                    return null;
+                }
+                result[part++] = (byte) value;
+                value = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0 || part != IPV4_BYTES - 1) {
+            return null;
+        }
+        result[part] = (byte) value;
+        return result;
+    }
+
+    private static boolean isIpv4Mapped(byte[] address) {
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xff && address[11] == (byte) 0xff;
+    }
+
+    /**
+     * 按位分支的前缀树，节点以数组存储，0号节点为根
+     */
+    private static final class BitTrie {
+
+        private int[] zero = new int[16];
+        private int[] one = new int[16];
+        private boolean[] terminal = new boolean[16];
+        private int nodeCount = 1;
+
+        void insert(byte[] address, int offset, int prefixLength) {
+            int node = 0;
+            for (int i = 0; i < prefixLength; i++) {
+                // 已存在更短的地址段覆盖，无需继续插入
+                if (terminal[node]) {
+                    return;
+                }
+                boolean zeroBit = bitAt(address, offset, i) == 0;
+                int child = zeroBit ? zero[node] : one[node];
+                if (child == 0) {
+                    // 扩容会替换数组，需在分配节点后再写入
+                    child = newNode();
+                    if (zeroBit) {
+                        zero[node] = child;
+                    } else {
+                        one[node] = child;
+                    }
+                }
+                node = child;
+            }
+            terminal[node] = true;
+        }
+
+        boolean contains(byte[] address, int offset, int bits) {
+            int node = 0;
+            for (int i = 0; i < bits; i++) {
+                if (terminal[node]) {
+                    return true;
+                }
+                node = bitAt(address, offset, i) == 0 ? zero[node] : one[node];
+                if (node == 0) {
+                    return false;
+                }
+            }
+            return terminal[node];
+        }
+
+        BitTrie trim() {
+            zero = Arrays.copyOf(zero, nodeCount);
+            one = Arrays.copyOf(one, nodeCount);
+            terminal = Arrays.copyOf(terminal, nodeCount);
+            return this;
+        }
+
+        private int newNode() {
+            if (nodeCount == terminal.length) {
+                int capacity = nodeCount * 2;
+                zero = Arrays.copyOf(zero, capacity);
+                one = Arrays.copyOf(one, capacity);
+                terminal = Arrays.copyOf(terminal, capacity);
+            }
+            return nodeCount++;
+        }
+
+        private static int bitAt(byte[] address, int offset, int index) {
+            return (address[offset + (index >>> 3)] >>> (7 - (index & 7))) & 1;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 网关响应缓存失效工具
+ * 后端服务在数据变更后通过Redis发布/订阅通知网关清除对应路径的缓存
+ * 路径为去掉/api前缀后的路径，以*结尾表示按前缀失效
+ */
+@Component
+public class GatewayCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayCacheInvalidator.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${gateway.cache.invalidation-channel:gateway:cache:invalidate}")
+    private String invalidationChannel;
+
+    /**
+     * 发布缓存失效消息
+     */
+    public void invalidate(String... paths) {
+        for (String path : paths) {
+            try {
+                stringRedisTemplate.convertAndSend(invalidationChannel, path);
+            } catch (Exception e) {
+                // 发布失败时依赖缓存TTL兜底，不影响主业务
+                logger.warn("发布网关缓存失效消息失败: {}, 错误: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.common.util;
+
+import java.util.Arrays;
+
+/**
+ * IP访问规则
+ * 由允许列表和拒绝列表编译而成的不可变快照，拒绝列表优先；
+ * 未启用允许列表强制校验时，只要不在拒绝列表中即放行
+ */
+public final class IpAccessRules {
+
+    private final CidrMatcher allowed;
+    private final CidrMatcher denied;
+    private final boolean enforceAllowList;
+
+    private IpAccessRules(CidrMatcher allowed, CidrMatcher denied, boolean enforceAllowList) {
+        this.allowed = allowed;
+        this.denied = denied;
+        this.enforceAllowList = enforceAllowList;
+    }
+
+    /**
+     * 编译访问规则
+     */
+    public static IpAccessRules compile(String[] allowedIps, String[] deniedIps, boolean enforceAllowList) {
+        return new IpAccessRules(
+            CidrMatcher.compile(allowedIps != null ? Arrays.asList(allowedIps) : null),
+            CidrMatcher.compile(deniedIps != null ? Arrays.asList(deniedIps) : null),
+            enforceAllowList);
+    }
+
+    /**
+     * 是否在允许列表中且不在拒绝列表中
+     */
+    public boolean isAllowed(String ip) {
+        return allowed.matches(ip) && !denied.matches(ip);
+    }
+
+    /**
+     * 是否在拒绝列表中
+     */
+    public boolean isDenied(String ip) {
+        return denied.matches(ip);
+    }
+
+    /**
+     * 是否放行该地址（按已解析的地址字节判断）
+     */
+    public boolean isPermitted(byte[] address) {
+        if (denied.matches(address)) {
+            return false;
+        }
+        return !enforceAllowList || allowed.matches(address);
+    }
+
+    /**
+     * 是否放行该地址
+     */
+    public boolean isPermitted(String ip) {
+        return isPermitted(CidrMatcher.parseAddress(ip));
+    }
+
+    public boolean isEnforceAllowList() {
+        return enforceAllowList;
+    }
+
+    public int getAllowedCount() {
+        return allowed.size();
+    }
+
+    public int getDeniedCount() {
+        return denied.size();
+    }
+}
@@ -18,6 +18,23 @@ import java.util.Map;
 @Component
 public class JwtUtil {
     
+    /**
+     * refresh token家族ID（同一次登录派生的所有令牌共享）
+     */
+    public static final String CLAIM_FAMILY_ID = "fid";
+    
+    /**
+     * refresh token在家族中的序号
+     */
+    public static final String CLAIM_SEQUENCE = "seq";
+    
+    /**
+     * 令牌类型，refresh token为refresh，access token不设置
+     */
+    public static final String CLAIM_TYPE = "type";
+    
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
     private String secret;
     
@@ -38,13 +55,35 @@ public class JwtUtil {
         return createToken(claims, username);
     }
     
+    /**
+     * 生成属于refresh token家族的access token
+     */
+    public String generateToken(String username, Long userId, String familyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put(CLAIM_FAMILY_ID, familyId);
+        return createToken(claims, username);
+    }
+    
     /**
      * 生成刷新token (有效期7天)
      */
     public String generateRefreshToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        claims.put("type", "refresh");
+        claims.put(CLAIM_TYPE, TOKEN_TYPE_REFRESH);
+        return createRefreshToken(claims, username);
+    }
+    
+    /**
+     * 生成带家族ID和序号的刷新token (有效期7天)
+     */
+    public String generateRefreshToken(String username, Long userId, String familyId, long sequence) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put(CLAIM_TYPE, TOKEN_TYPE_REFRESH);
+        claims.put(CLAIM_FAMILY_ID, familyId);
+        claims.put(CLAIM_SEQUENCE, sequence);
         return createRefreshToken(claims, username);
     }
     
@@ -111,6 +150,20 @@ public class JwtUtil {
         return getExpirationDateFromToken(token);
     }
     
+    /**
+     * 校验签名和有效期并解析Claims，需要读取多个字段时只解析一次
+     */
+    public Claims parseToken(String token) {
+        return getClaimsFromToken(token);
+    }
+    
+    /**
+     * 是否为refresh token，refresh token只能用于刷新接口，不能作为访问令牌
+     */
+    public static boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TYPE));
+    }
+    
     /**
      * 从token中获取Claims
      */
@@ -0,0 +1,162 @@
+package com.example.common.util;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt强度校准与登录吞吐基准工具
+ * 校准：在当前硬件上逐级测量单次校验耗时，选出不超过目标延迟的最大强度；
+ * 基准：按强度用多线程持续校验，输出每秒可完成的登录数，用于容量规划
+ *
+ * 命令行用法：java PasswordHashCalibrator [目标延迟毫秒，默认250] [线程数，默认CPU核数] [每档秒数，默认5]
+ */
+public final class PasswordHashCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "Calibrate#2024";
+    private static final int SAMPLES_PER_STRENGTH = 3;
+
+    private PasswordHashCalibrator() {}
+
+    /**
+     * 测量指定强度下单次校验耗时的中位数（纳秒）
+     */
+    public static long measureVerifyNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String encoded = encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES_PER_STRENGTH];
+        for (int i = 0; i < samples.length; i++) {
+            long startTime = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, encoded);
+            samples[i] = System.nanoTime() - startTime;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    /**
+     * 选出单次校验耗时不超过目标延迟的最大强度，结果限制在[minStrength, maxStrength]内
+     * BCrypt强度每加1耗时翻倍，超过目标后不再继续测量
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        long targetNanos = targetLatency.toNanos();
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            if (measureVerifyNanos(strength) > targetNanos) {
+                break;
+            }
+            chosen = strength;
+        }
+        return chosen;
+    }
+
+    /**
+     * 以指定线程数在各强度下持续校验，统计吞吐和平均延迟
+     */
+    public static List<BenchmarkResult> benchmark(int minStrength, int maxStrength, int threads, Duration duration)
+            throws InterruptedException {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String encoded = encoder.encode(SAMPLE_PASSWORD);
+            LongAdder completed = new LongAdder();
+            LongAdder totalNanos = new LongAdder();
+            long deadline = System.nanoTime() + duration.toNanos();
+            CountDownLatch finished = new CountDownLatch(threads);
+
+            long startTime = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            long verifyStart = System.nanoTime();
+                            encoder.matches(SAMPLE_PASSWORD, encoded);
+                            totalNanos.add(System.nanoTime() - verifyStart);
+                            completed.increment();
+                        }
+                    } finally {
+                        finished.countDown();
+                    }
+                }, "password-benchmark-" + i);
+                worker.setDaemon(true);
+                worker.start();
+            }
+            finished.await();
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            long count = completed.sum();
+            results.add(new BenchmarkResult(strength, threads, count,
+                count * 1_000_000_000.0 / elapsedNanos,
+                count > 0 ? totalNanos.sum() / count / 1_000_000.0 : 0));
+        }
+        return results;
+    }
+
+    /**
+     * 单个强度的基准结果
+     */
+    public static class BenchmarkResult {
+        private final int strength;
+        private final int threads;
+        private final long verifications;
+        private final double loginsPerSecond;
+        private final double averageMillis;
+
+        public BenchmarkResult(int strength, int threads, long verifications,
+                               double loginsPerSecond, double averageMillis) {
+            this.strength = strength;
+            this.threads = threads;
+            this.verifications = verifications;
+            this.loginsPerSecond = loginsPerSecond;
+            this.averageMillis = averageMillis;
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public long getVerifications() {
+            return verifications;
+        }
+
+        public double getLoginsPerSecond() {
+            return loginsPerSecond;
+        }
+
+        public double getAverageMillis() {
+            return averageMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("强度 %2d | 线程 %2d | 校验次数 %6d | 登录/秒 %9.1f | 平均延迟 %8.2f ms",
+                strength, threads, verifications, loginsPerSecond, averageMillis);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("=== BCrypt强度校准 ===");
+        int strength = calibrate(Duration.ofMillis(targetMillis), 4, 16);
+        System.out.println("目标校验延迟 " + targetMillis + "ms，推荐强度: " + strength);
+
+        System.out.println("=== 登录吞吐基准（" + threads + " 线程，每档 " + seconds + " 秒）===");
+        int minStrength = Math.max(4, strength - 2);
+        int maxStrength = Math.min(16, strength + 2);
+        for (BenchmarkResult result : benchmark(minStrength, maxStrength, threads, Duration.ofSeconds(seconds))) {
+            System.out.println(result);
+        }
+    }
+}
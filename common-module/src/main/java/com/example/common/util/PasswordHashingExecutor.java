@@ -0,0 +1,177 @@
+package com.example.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希专用执行器
+ * BCrypt计算在线程数与CPU核数一致的独立线程池中执行，避免登录高峰占满Web容器线程；
+ * 队列已满时立即拒绝，排队超过截止时间的任务不再计算，均抛出RejectedExecutionException
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private static volatile PasswordHashingExecutor instance;
+
+    /**
+     * 线程数，0表示使用CPU核数
+     */
+    @Value("${app.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password-hashing.queue-capacity:256}")
+    private int queueCapacity;
+
+    /**
+     * 任务排队的截止时间，超过后直接拒绝
+     */
+    @Value("${app.password-hashing.queue-deadline:2s}")
+    private Duration queueDeadline;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final LongAdder queueFullRejections = new LongAdder();
+    private final LongAdder deadlineRejections = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new HashingThread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        instance = this;
+        logger.info("密码哈希执行器已启动 - 线程数: {}, 队列容量: {}, 排队截止时间: {}", poolSize, queueCapacity, queueDeadline);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        instance = null;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 获取当前执行器实例（供PasswordUtil等静态工具使用），未初始化时返回null
+     */
+    public static PasswordHashingExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * 异步提交哈希任务
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        long deadlineNanos = queueDeadline.toNanos();
+        try {
+            executor.execute(() -> {
+                long waitNanos = System.nanoTime() - enqueuedAt;
+                queueWaitNanos.add(waitNanos);
+                maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+                if (waitNanos > deadlineNanos) {
+                    deadlineRejections.increment();
+                    future.completeExceptionally(new RejectedExecutionException("密码校验排队超时，请稍后重试"));
+                    return;
+                }
+
+                long startedAt = System.nanoTime();
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    completedTasks.increment();
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            future.completeExceptionally(new RejectedExecutionException("密码校验繁忙，请稍后重试"));
+        }
+        return future;
+    }
+
+    /**
+     * 同步执行哈希任务，在哈希线程内调用时直接执行以免自我等待
+     */
+    public <T> T execute(Supplier<T> task) {
+        if (Thread.currentThread() instanceof HashingThread) {
+            return task.get();
+        }
+        try {
+            return submit(task).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 获取执行器统计信息（时间单位：毫秒）
+     */
+    public Map<String, Object> getStatistics() {
+        long completed = completedTasks.sum();
+        Map<String, Object> result = new HashMap<>();
+        result.put("poolSize", executor.getPoolSize());
+        result.put("activeThreads", executor.getActiveCount());
+        result.put("queueSize", executor.getQueue().size());
+        result.put("completedTasks", completed);
+        result.put("avgHashMillis", completed > 0 ? hashNanos.sum() / completed / 1_000_000.0 : 0);
+        result.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        result.put("avgQueueWaitMillis", completed > 0 ? queueWaitNanos.sum() / completed / 1_000_000.0 : 0);
+        result.put("maxQueueWaitMillis", maxQueueWaitNanos.get() / 1_000_000.0);
+        result.put("queueFullRejections", queueFullRejections.sum());
+        result.put("deadlineRejections", deadlineRejections.sum());
+        return result;
+    }
+
+    /**
+     * 哈希线程，用于识别重入调用
+     */
+    private static class HashingThread extends Thread {
+        HashingThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
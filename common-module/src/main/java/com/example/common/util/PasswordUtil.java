@@ -3,24 +3,72 @@ package com.example.common.util;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 密码工具类
+ * Spring环境中使用PasswordEncoderConfig配置的编码器，BCrypt计算交由PasswordHashingExecutor执行；
+ * 非Spring环境下使用默认强度的BCrypt并在当前线程计算
  */
 public class PasswordUtil {
     
-    private static final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private static volatile PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    
+    /**
+     * 替换使用的编码器（由PasswordEncoderConfig在启动时设置）
+     */
+    public static void setPasswordEncoder(PasswordEncoder encoder) {
+        passwordEncoder = encoder;
+    }
+    
+    /**
+     * 判断已保存的密码是否需要按当前编码器重新哈希
+     */
+    public static boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
     
     /**
      * 加密密码
      */
     public static String encode(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        PasswordHashingExecutor executor = PasswordHashingExecutor.getInstance();
+        if (executor == null) {
+            return passwordEncoder.encode(rawPassword);
+        }
+        return executor.execute(() -> passwordEncoder.encode(rawPassword));
     }
     
     /**
      * 验证密码
      */
     public static boolean matches(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        PasswordHashingExecutor executor = PasswordHashingExecutor.getInstance();
+        if (executor == null) {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        }
+        return executor.execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    /**
+     * 异步加密密码
+     */
+    public static CompletableFuture<String> encodeAsync(String rawPassword) {
+        PasswordHashingExecutor executor = PasswordHashingExecutor.getInstance();
+        if (executor == null) {
+            return CompletableFuture.completedFuture(passwordEncoder.encode(rawPassword));
+        }
+        return executor.submit(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    /**
+     * 异步验证密码
+     */
+    public static CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        PasswordHashingExecutor executor = PasswordHashingExecutor.getInstance();
+        if (executor == null) {
+            return CompletableFuture.completedFuture(passwordEncoder.matches(rawPassword, encodedPassword));
+        }
+        return executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
     }
-}
\ No newline at end of file
+}
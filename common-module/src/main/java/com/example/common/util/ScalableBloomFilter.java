@@ -0,0 +1,173 @@
+package com.example.common.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 可扩容的布隆过滤器
+ * 由若干层定长布隆过滤器组成，当前层写满后按增长倍数追加新层，并逐层收紧误判率，
+ * 使整体误判率收敛在初始误判率附近；查询无锁，写入串行
+ *
+ * mightContain返回false时元素一定不存在，返回true时元素可能存在（需要再确认）
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+
+    private volatile Layer[] layers;
+
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("初始容量必须大于0: " + initialCapacity);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("误判率必须在0和1之间: " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // 首层误判率按等比数列之和折算，保证各层累加后不超过目标误判率
+        this.layers = new Layer[]{new Layer(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * 判断元素是否可能存在
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 添加元素
+     */
+    public synchronized void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash1, hash2)) {
+                return;
+            }
+        }
+
+        Layer[] current = layers;
+        Layer last = current[current.length - 1];
+        if (last.count >= last.capacity) {
+            Layer[] grown = new Layer[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            int capacity = (int) Math.min(Integer.MAX_VALUE, (long) last.capacity * GROWTH_FACTOR);
+            last = new Layer(capacity, last.falsePositiveRate * TIGHTENING_RATIO);
+            grown[current.length] = last;
+            layers = grown;
+        }
+        last.put(hash1, hash2);
+    }
+
+    /**
+     * 已添加的元素数量（近似值，可能误判为已存在而未计入）
+     */
+    public long size() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.count;
+        }
+        return size;
+    }
+
+    public int layerCount() {
+        return layers.length;
+    }
+
+    /**
+     * 占用的位数组字节数
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += (long) layer.bits.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * 64位FNV-1a哈希，按UTF-16字符计算，不产生字节数组
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 由第一个哈希派生第二个哈希（SplitMix64终结函数），保证为奇数
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return (hash ^ (hash >>> 31)) | 1L;
+    }
+
+    /**
+     * 定长布隆过滤器层，位数组使用AtomicLongArray以支持并发读
+     */
+    private static final class Layer {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private volatile int count;
+
+        Layer(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (optimalBits + 63) >>> 6);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = (combined & Long.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+
+        void put(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = (combined & Long.MAX_VALUE) % bitCount;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0
+                        && !bits.compareAndSet(word, current, current | mask)) {
+                    // CAS失败时重读后重试
+                }
+                combined += hash2;
+            }
+            count++;
+        }
+    }
+}
@@ -18,12 +18,20 @@ public class ServerConfigUtils {
     
     private static ServerConfig staticServerConfig;
     
+    /**
+     * 已编译的IP访问规则，更新时整体替换
+     */
+    private static volatile IpAccessRules ipAccessRules =
+        IpAccessRules.compile(new String[]{"127.0.0.1", "localhost"}, new String[0], false);
+    
     /**
      * 初始化静态配置（供非Spring环境使用）
      */
     @PostConstruct
     public void init() {
         staticServerConfig = serverConfig;
+        ServerConfig.Security security = serverConfig.getSecurity();
+        updateIpAccessRules(security.getAllowedIps(), security.getDeniedIps(), security.isEnforceAllowList());
     }
     
     /**
@@ -205,19 +213,36 @@ public class ServerConfigUtils {
     }
     
     /**
-     * 检查IP是否在允许列表中
+     * 检查IP是否在允许列表中（支持CIDR地址段，拒绝列表优先）
      */
     public static boolean isIpAllowed(String ip) {
         if (ip == null) {
             return false;
         }
-        
-        String[] allowedIps = getAllowedIps();
-        for (String allowedIp : allowedIps) {
-            if (allowedIp.equals(ip) || allowedIp.equals("localhost") && "127.0.0.1".equals(ip)) {
-                return true;
-            }
+        return ipAccessRules.isAllowed(ip);
+    }
+    
+    /**
+     * 检查IP是否在拒绝列表中
+     */
+    public static boolean isIpDenied(String ip) {
+        if (ip == null) {
+            return false;
         }
-        return false;
+        return ipAccessRules.isDenied(ip);
+    }
+    
+    /**
+     * 获取当前IP访问规则
+     */
+    public static IpAccessRules getIpAccessRules() {
+        return ipAccessRules;
+    }
+    
+    /**
+     * 重新编译并原子替换IP访问规则，编译失败时保留原规则
+     */
+    public static void updateIpAccessRules(String[] allowedIps, String[] deniedIps, boolean enforceAllowList) {
+        ipAccessRules = IpAccessRules.compile(allowedIps, deniedIps, enforceAllowList);
     }
 }
@@ -11,6 +11,7 @@ public enum ErrorCode {
     FORBIDDEN(403, "禁止访问"),
     NOT_FOUND(404, "资源不存在"),
     BUSINESS_ERROR(500, "业务异常"),
+    SERVICE_BUSY(503, "服务繁忙"),
     SYSTEM_ERROR(500, "系统异常");
     
     private final Integer code;
@@ -0,0 +1,77 @@
+package com.example.common.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 游标分页位置
+ * 记录上一页最后一条记录的排序键和ID，编码为不透明字符串返回给客户端；
+ * 下一页按 (排序键, ID) 越过该位置查询，不需要OFFSET和COUNT，深分页耗时与第一页相同。
+ * 排序键可以是时间（按UTC换算为秒和纳秒保存）或整数
+ */
+public final class PageCursor {
+
+    private final long sortValue;
+
+    private final int sortNanos;
+
+    private final Long id;
+
+    private PageCursor(long sortValue, int sortNanos, Long id) {
+        this.sortValue = sortValue;
+        this.sortNanos = sortNanos;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime sortKey, Long id) {
+        return new PageCursor(sortKey.toEpochSecond(ZoneOffset.UTC), sortKey.getNano(), id);
+    }
+
+    public static PageCursor of(long sortValue, Long id) {
+        return new PageCursor(sortValue, 0, id);
+    }
+
+    /**
+     * 解析客户端传回的游标，空字符串表示第一页（返回null）
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new PageCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("分页游标无效");
+        }
+    }
+
+    public String encode() {
+        String value = sortValue + ":" + sortNanos + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 时间排序键
+     */
+    public LocalDateTime getSortKey() {
+        try {
+            return LocalDateTime.ofEpochSecond(sortValue, sortNanos, ZoneOffset.UTC);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("分页游标无效");
+        }
+    }
+
+    /**
+     * 整数排序键
+     */
+    public long getSortValue() {
+        return sortValue;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -5,7 +5,9 @@ import io.swagger.annotations.ApiModelProperty;
 import org.springframework.data.domain.Page;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 分页响应结果
@@ -28,6 +30,12 @@ public class PageResponse<T> implements Serializable {
     @ApiModelProperty("数据列表")
     private List<T> records;
     
+    @ApiModelProperty("是否还有下一页")
+    private Boolean hasNext;
+    
+    @ApiModelProperty("下一页游标（游标分页时返回，作为cursor参数传回）")
+    private String nextCursor;
+    
     public PageResponse() {}
     
     public PageResponse(Long current, Long size, Long total, List<T> records) {
@@ -36,6 +44,7 @@ public class PageResponse<T> implements Serializable {
         this.total = total;
         this.records = records;
         this.pages = (total + size - 1) / size;
+        this.hasNext = current < pages;
     }
     
     /**
@@ -47,6 +56,28 @@ public class PageResponse<T> implements Serializable {
         this.total = page.getTotalElements();
         this.records = page.getContent();
         this.pages = (long) page.getTotalPages();
+        this.hasNext = page.hasNext();
+    }
+    
+    /**
+     * 构造游标分页结果（不统计总数，current/total/pages为空）
+     *
+     * @param rows     按size + 1条查询的结果，多出的一条只用于判断是否有下一页
+     * @param size     每页大小
+     * @param cursorOf 由记录生成游标
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        if (size < 1) {
+            throw new IllegalArgumentException("每页大小必须大于0");
+        }
+        PageResponse<T> response = new PageResponse<>();
+        response.size = (long) size;
+        response.hasNext = rows.size() > size;
+        response.records = response.hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        if (response.hasNext) {
+            response.nextCursor = cursorOf.apply(response.records.get(size - 1)).encode();
+        }
+        return response;
     }
     
     // Getters and Setters
@@ -89,4 +120,20 @@ public class PageResponse<T> implements Serializable {
     public void setRecords(List<T> records) {
         this.records = records;
     }
+    
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.file.controller;
 
 import com.example.common.web.ApiResponse;
+import com.example.file.dto.FileSummary;
 import com.example.file.entity.FileMetadata;
 import com.example.file.service.FileService;
 import io.swagger.annotations.*;
@@ -186,12 +187,12 @@ public class FileController {
     
     @ApiOperation("获取用户文件列表")
     @GetMapping("/list")
-    public ApiResponse<List<FileMetadata>> getUserFiles(
+    public ApiResponse<List<FileSummary>> getUserFiles(
             @ApiParam("业务类型") @RequestParam(required = false) String businessType,
             HttpServletRequest request) {
         
         Long userId = getCurrentUserId(request);
-        List<FileMetadata> files = fileService.getUserFiles(userId, businessType);
+        List<FileSummary> files = fileService.getUserFiles(userId, businessType);
         return ApiResponse.success(files);
     }
     
@@ -211,13 +212,13 @@ public class FileController {
     
     @ApiOperation("搜索文件")
     @GetMapping("/search")
-    public ApiResponse<List<FileMetadata>> searchFiles(
+    public ApiResponse<List<FileSummary>> searchFiles(
             @ApiParam("关键字") @RequestParam(required = false) String keyword,
             @ApiParam("文件类型") @RequestParam(required = false) String fileType,
             HttpServletRequest request) {
         
         Long userId = getCurrentUserId(request);
-        List<FileMetadata> files = fileService.searchFiles(userId, keyword, fileType);
+        List<FileSummary> files = fileService.searchFiles(userId, keyword, fileType);
         return ApiResponse.success(files);
     }
     
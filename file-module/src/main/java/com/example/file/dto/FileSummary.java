@@ -0,0 +1,85 @@
+package com.example.file.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文件列表项
+ * 列表查询通过JPQL构造器表达式只查询这些列，不返回存储路径、MD5等内部字段；详情接口仍返回完整的FileMetadata
+ */
+public class FileSummary {
+
+    private final Long id;
+
+    private final String originalName;
+
+    private final Long fileSize;
+
+    private final String contentType;
+
+    private final String fileExtension;
+
+    private final Boolean isImage;
+
+    private final Integer width;
+
+    private final Integer height;
+
+    private final String businessType;
+
+    private final LocalDateTime createTime;
+
+    public FileSummary(Long id, String originalName, Long fileSize, String contentType, String fileExtension,
+                       Boolean isImage, Integer width, Integer height, String businessType,
+                       LocalDateTime createTime) {
+        this.id = id;
+        this.originalName = originalName;
+        this.fileSize = fileSize;
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+        this.isImage = isImage;
+        this.width = width;
+        this.height = height;
+        this.businessType = businessType;
+        this.createTime = createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public Boolean getIsImage() {
+        return isImage;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public String getBusinessType() {
+        return businessType;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+}
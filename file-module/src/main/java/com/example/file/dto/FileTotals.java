@@ -0,0 +1,13 @@
+package com.example.file.dto;
+
+/**
+ * 用户文件汇总（接口投影，由聚合查询的列别名映射）
+ */
+public interface FileTotals {
+
+    Long getTotalFiles();
+
+    Long getTotalSize();
+
+    Long getImageCount();
+}
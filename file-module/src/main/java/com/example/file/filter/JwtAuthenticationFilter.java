@@ -1,6 +1,7 @@
 package com.example.file.filter;
 
 import com.example.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,9 +34,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         if (StringUtils.hasText(token)) {
             try {
-                String username = jwtUtil.getUsernameFromToken(token);
+                Claims claims = jwtUtil.parseToken(token);
+                String username = claims.getSubject();
                 
-                if (StringUtils.hasText(username) && !jwtUtil.isTokenExpired(token)) {
+                // refresh token只能用于刷新接口，不能作为访问令牌
+                if (StringUtils.hasText(username) && !JwtUtil.isRefreshToken(claims)) {
                     // 创建认证对象
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
@@ -45,7 +48,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     
                     // 将用户ID添加到请求属性中，方便控制器使用
-                    Long userId = jwtUtil.getUserIdFromToken(token);
+                    Long userId = Long.valueOf(claims.get("userId").toString());
                     request.setAttribute("userId", userId);
                     request.setAttribute("username", username);
                 }
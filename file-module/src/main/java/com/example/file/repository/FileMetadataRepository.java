@@ -1,7 +1,11 @@
 package com.example.file.repository;
 
+import com.example.file.dto.FileSummary;
+import com.example.file.dto.FileTotals;
 import com.example.file.entity.FileMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +17,12 @@ import java.util.Optional;
 @Repository
 public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long> {
     
+    /**
+     * 列表项的构造器表达式，只查询列表需要的列
+     */
+    String SUMMARY_COLUMNS = "new com.example.file.dto.FileSummary(f.id, f.originalName, f.fileSize, " +
+        "f.contentType, f.fileExtension, f.isImage, f.width, f.height, f.businessType, f.createTime)";
+    
     /**
      * 根据MD5和状态查找文件
      */
@@ -24,15 +34,29 @@ public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long
     Optional<FileMetadata> findByIdAndStatus(Long id, Integer status);
     
     /**
-     * 根据用户ID和状态查找文件列表
+     * 根据用户ID和状态查找文件列表项
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM FileMetadata f " +
+           "WHERE f.uploadUserId = :uploadUserId AND f.status = :status ORDER BY f.createTime DESC")
+    List<FileSummary> findSummariesByUser(@Param("uploadUserId") Long uploadUserId, @Param("status") Integer status);
+    
+    /**
+     * 根据用户ID、业务类型和状态查找文件列表项
      */
-    List<FileMetadata> findByUploadUserIdAndStatusOrderByCreateTimeDesc(Long uploadUserId, Integer status);
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM FileMetadata f " +
+           "WHERE f.uploadUserId = :uploadUserId AND f.businessType = :businessType AND f.status = :status " +
+           "ORDER BY f.createTime DESC")
+    List<FileSummary> findSummariesByUserAndBusinessType(@Param("uploadUserId") Long uploadUserId,
+                                                         @Param("businessType") String businessType,
+                                                         @Param("status") Integer status);
     
     /**
-     * 根据用户ID、业务类型和状态查找文件列表
+     * 汇总用户的文件数、总大小和图片数
      */
-    List<FileMetadata> findByUploadUserIdAndBusinessTypeAndStatusOrderByCreateTimeDesc(
-        Long uploadUserId, String businessType, Integer status);
+    @Query("SELECT COUNT(f) AS totalFiles, COALESCE(SUM(f.fileSize), 0) AS totalSize, " +
+           "COALESCE(SUM(CASE WHEN f.isImage = true THEN 1 ELSE 0 END), 0) AS imageCount " +
+           "FROM FileMetadata f WHERE f.uploadUserId = :uploadUserId AND f.status = :status")
+    FileTotals sumByUser(@Param("uploadUserId") Long uploadUserId, @Param("status") Integer status);
     
     /**
      * 根据业务类型和状态查找文件列表
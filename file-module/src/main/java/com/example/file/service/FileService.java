@@ -1,5 +1,8 @@
 package com.example.file.service;
 
+import com.example.common.util.GatewayCacheInvalidator;
+import com.example.file.dto.FileSummary;
+import com.example.file.dto.FileTotals;
 import com.example.file.entity.FileMetadata;
 import com.example.file.repository.FileMetadataRepository;
 import net.coobird.thumbnailator.Thumbnails;
@@ -34,6 +37,9 @@ public class FileService {
     @Autowired
     private FileMetadataRepository fileMetadataRepository;
     
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+    
     @Value("${file.upload.path:/tmp/uploads/}")
     private String uploadPath;
     
@@ -126,6 +132,7 @@ public class FileService {
         fileMetadata.setStatus(0);
         fileMetadata.setUpdateTime(LocalDateTime.now());
         fileMetadataRepository.save(fileMetadata);
+        gatewayCacheInvalidator.invalidate("/file/" + id);
         
         // 删除物理文件
         Files.deleteIfExists(Paths.get(fileMetadata.getFilePath()));
@@ -137,12 +144,12 @@ public class FileService {
     /**
      * 获取用户文件列表
      */
-    public List<FileMetadata> getUserFiles(Long userId, String businessType) {
+    @Transactional(readOnly = true)
+    public List<FileSummary> getUserFiles(Long userId, String businessType) {
         if (StringUtils.hasText(businessType)) {
-            return fileMetadataRepository.findByUploadUserIdAndBusinessTypeAndStatusOrderByCreateTimeDesc(
-                userId, businessType, 1);
+            return fileMetadataRepository.findSummariesByUserAndBusinessType(userId, businessType, 1);
         } else {
-            return fileMetadataRepository.findByUploadUserIdAndStatusOrderByCreateTimeDesc(userId, 1);
+            return fileMetadataRepository.findSummariesByUser(userId, 1);
         }
     }
     
@@ -197,12 +204,14 @@ public class FileService {
     /**
      * 获取文件统计信息
      */
+    @Transactional(readOnly = true)
     public FileStatistics getFileStatistics(Long userId) {
-        List<FileMetadata> userFiles = getUserFiles(userId, null);
+        // 在数据库中聚合，不加载文件列表
+        FileTotals totals = fileMetadataRepository.sumByUser(userId, 1);
         
-        long totalFiles = userFiles.size();
-        long totalSize = userFiles.stream().mapToLong(FileMetadata::getFileSize).sum();
-        long imageCount = userFiles.stream().filter(f -> Boolean.TRUE.equals(f.getIsImage())).count();
+        long totalFiles = totals.getTotalFiles();
+        long totalSize = totals.getTotalSize();
+        long imageCount = totals.getImageCount();
         long documentCount = totalFiles - imageCount;
         
         return new FileStatistics(totalFiles, totalSize, imageCount, documentCount);
@@ -211,16 +220,17 @@ public class FileService {
     /**
      * 搜索文件
      */
-    public List<FileMetadata> searchFiles(Long userId, String keyword, String fileType) {
+    @Transactional(readOnly = true)
+    public List<FileSummary> searchFiles(Long userId, String keyword, String fileType) {
         // 这里简化处理，实际项目中可以使用更复杂的搜索逻辑
-        List<FileMetadata> allFiles = getUserFiles(userId, null);
+        List<FileSummary> allFiles = getUserFiles(userId, null);
         
         return allFiles.stream()
             .filter(file -> {
                 boolean matchKeyword = keyword == null || 
                     file.getOriginalName().toLowerCase().contains(keyword.toLowerCase());
                 boolean matchType = fileType == null || 
-                    file.getFileExtension().equalsIgnoreCase(fileType);
+                    fileType.equalsIgnoreCase(file.getFileExtension());
                 return matchKeyword && matchType;
             })
             .collect(java.util.stream.Collectors.toList());
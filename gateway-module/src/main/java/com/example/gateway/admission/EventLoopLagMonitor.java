@@ -0,0 +1,98 @@
+package com.example.gateway.admission;
+
+import com.example.gateway.config.AdmissionControlProperties;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 事件循环延迟监控
+ * 定期向服务端的每个Netty事件循环投递空任务，以任务从投递到执行的耗时作为该循环的延迟；
+ * 任务未执行前，延迟按已等待时间持续增长
+ */
+@Component
+public class EventLoopLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLoopLagMonitor.class);
+
+    @Autowired
+    private AdmissionControlProperties admissionProperties;
+
+    private final List<LoopProbe> probes = new ArrayList<>();
+
+    private Disposable probeSubscription;
+
+    @PostConstruct
+    public void init() {
+        EventLoopGroup serverLoops = HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE);
+        for (EventExecutor executor : serverLoops) {
+            probes.add(new LoopProbe(executor));
+        }
+
+        probeSubscription = Flux.interval(admissionProperties.getProbeInterval())
+            .subscribe(tick -> probes.forEach(LoopProbe::probe),
+                e -> logger.error("事件循环延迟监控异常", e));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (probeSubscription != null) {
+            probeSubscription.dispose();
+        }
+    }
+
+    /**
+     * 获取所有事件循环中的最大延迟（纳秒）
+     */
+    public long getMaxLagNanos() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (LoopProbe probe : probes) {
+            max = Math.max(max, probe.currentLag(now));
+        }
+        return max;
+    }
+
+    /**
+     * 单个事件循环的探针
+     */
+    private static class LoopProbe {
+        private final EventExecutor executor;
+        private final AtomicLong pendingSince = new AtomicLong();
+        private volatile long lastLagNanos;
+
+        LoopProbe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        void probe() {
+            long now = System.nanoTime();
+            // 上一次投递的任务尚未执行时不再重复投递
+            if (!pendingSince.compareAndSet(0, now)) {
+                return;
+            }
+            executor.execute(() -> {
+                lastLagNanos = System.nanoTime() - now;
+                pendingSince.set(0);
+            });
+        }
+
+        long currentLag(long now) {
+            long since = pendingSince.get();
+            return since != 0 ? Math.max(lastLagNanos, now - since) : lastLagNanos;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.gateway.admission;
+
+/**
+ * 请求优先级
+ * 过载时按从低到高的顺序丢弃，CRITICAL级别的请求始终放行
+ */
+public enum RequestPriority {
+
+    /**
+     * 关键路径：登录、刷新令牌等
+     */
+    CRITICAL,
+
+    /**
+     * 高优先级：已认证用户的交互请求
+     */
+    HIGH,
+
+    /**
+     * 普通优先级：匿名请求及未分类请求
+     */
+    NORMAL,
+
+    /**
+     * 低优先级：列表、批量和导出类请求
+     */
+    LOW;
+
+    /**
+     * 降低一级优先级（CRITICAL不降级）
+     */
+    public RequestPriority demote() {
+        if (this == CRITICAL || this == LOW) {
+            return this;
+        }
+        return values()[ordinal() + 1];
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.gateway.cache;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 网关缓存的响应快照
+ */
+public class CachedResponse {
+
+    private final byte[] body;
+    private final MediaType contentType;
+    private final String etag;
+    private final long ttlNanos;
+
+    public CachedResponse(byte[] body, MediaType contentType, String etag, long ttlNanos) {
+        this.body = body;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.ttlNanos = ttlNanos;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getTtlNanos() {
+        return ttlNanos;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.gateway.cache;
+
+import com.example.gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关响应缓存存储
+ * 基于Caffeine的容量受限内存缓存，支持按条目TTL以及通过Redis发布/订阅失效
+ *
+ * 缓存键格式：路径|查询串|用户范围，失效消息为路径（精确匹配）或以*结尾的路径前缀
+ */
+@Component
+public class ResponseCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheStore.class);
+
+    static final char KEY_SEPARATOR = '|';
+
+    @Autowired
+    private ResponseCacheProperties cacheProperties;
+
+    @Autowired
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    private Cache<String, CachedResponse> cache;
+
+    private Disposable invalidationSubscription;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(cacheProperties.getMaxWeightBytes())
+            .weigher((String key, CachedResponse value) -> key.length() + value.getBody().length)
+            .expireAfter(new Expiry<String, CachedResponse>() {
+                @Override
+                public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                    return value.getTtlNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                    return value.getTtlNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+        // 订阅后端发布的失效消息，Redis不可用时退避重连
+        invalidationSubscription = reactiveStringRedisTemplate
+            .listenToChannel(cacheProperties.getInvalidationChannel())
+            .doOnNext(message -> invalidate(message.getMessage()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                .doBeforeRetry(signal -> logger.warn("缓存失效频道订阅中断，准备重连: {}", signal.failure().getMessage())))
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (invalidationSubscription != null) {
+            invalidationSubscription.dispose();
+        }
+    }
+
+    /**
+     * 构建缓存键
+     */
+    public static String buildKey(String path, String query, String scope) {
+        return path + KEY_SEPARATOR + (query != null ? query : "") + KEY_SEPARATOR + scope;
+    }
+
+    /**
+     * 获取缓存响应
+     */
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 写入缓存响应
+     */
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * 按路径失效缓存
+     */
+    public void invalidate(String path) {
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+
+        String prefix = path.endsWith("*") ? path.substring(0, path.length() - 1) : path + KEY_SEPARATOR;
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        logger.debug("响应缓存已失效: {}", path);
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.gateway.config;
+
+import com.example.gateway.admission.RequestPriority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 网关准入控制（过载降级）配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionControlProperties {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * 是否启用准入控制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 事件循环延迟探测间隔
+     */
+    private Duration probeInterval = Duration.ofMillis(100);
+
+    /**
+     * 事件循环延迟阈值，达到该值时负载压力为1.0
+     */
+    private Duration lagThreshold = Duration.ofMillis(100);
+
+    /**
+     * 在途请求数阈值，达到该值时负载压力为1.0
+     */
+    private int maxInFlight = 2000;
+
+    /**
+     * 开始丢弃LOW级别请求的负载压力
+     */
+    private double shedLowAt = 1.0;
+
+    /**
+     * 开始丢弃NORMAL级别请求的负载压力
+     */
+    private double shedNormalAt = 1.25;
+
+    /**
+     * 开始丢弃HIGH级别请求的负载压力
+     */
+    private double shedHighAt = 1.5;
+
+    /**
+     * 503响应中Retry-After的秒数
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * 关键路径（去掉/api前缀后的路径），过载时始终放行
+     */
+    private List<String> criticalPatterns = new ArrayList<>(Arrays.asList(
+        "/auth/login",
+        "/auth/refresh",
+        "/auth/logout"
+    ));
+
+    /**
+     * 低优先级路径，过载时最先丢弃
+     */
+    private List<String> lowPatterns = new ArrayList<>(Arrays.asList(
+        "/file/list",
+        "/file/search",
+        "/file/statistics",
+        "/file/upload/batch",
+        "/file/compress/**",
+        "/user/list",
+        "/user/statistics",
+        "/admin/**"
+    ));
+
+    /**
+     * 根据路径和是否已认证划分优先级，匿名请求降低一级
+     */
+    public RequestPriority classify(String path, boolean authenticated) {
+        if (matchesAny(criticalPatterns, path)) {
+            return RequestPriority.CRITICAL;
+        }
+        RequestPriority priority = matchesAny(lowPatterns, path) ? RequestPriority.LOW : RequestPriority.HIGH;
+        return authenticated ? priority : priority.demote();
+    }
+
+    /**
+     * 获取指定优先级开始被丢弃的负载压力，CRITICAL不丢弃
+     */
+    public double getShedThreshold(RequestPriority priority) {
+        switch (priority) {
+            case LOW:
+                return shedLowAt;
+            case NORMAL:
+                return shedNormalAt;
+            case HIGH:
+                return shedHighAt;
+            default:
+                return Double.MAX_VALUE;
+        }
+    }
+
+    private static boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(Duration probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public Duration getLagThreshold() {
+        return lagThreshold;
+    }
+
+    public void setLagThreshold(Duration lagThreshold) {
+        this.lagThreshold = lagThreshold;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public double getShedLowAt() {
+        return shedLowAt;
+    }
+
+    public void setShedLowAt(double shedLowAt) {
+        this.shedLowAt = shedLowAt;
+    }
+
+    public double getShedNormalAt() {
+        return shedNormalAt;
+    }
+
+    public void setShedNormalAt(double shedNormalAt) {
+        this.shedNormalAt = shedNormalAt;
+    }
+
+    public double getShedHighAt() {
+        return shedHighAt;
+    }
+
+    public void setShedHighAt(double shedHighAt) {
+        this.shedHighAt = shedHighAt;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public List<String> getCriticalPatterns() {
+        return criticalPatterns;
+    }
+
+    public void setCriticalPatterns(List<String> criticalPatterns) {
+        this.criticalPatterns = criticalPatterns;
+    }
+
+    public List<String> getLowPatterns() {
+        return lowPatterns;
+    }
+
+    public void setLowPatterns(List<String> lowPatterns) {
+        this.lowPatterns = lowPatterns;
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.gateway.config;
 
 import com.example.common.util.ServerConfigUtils;
+import com.example.gateway.filter.AdmissionControlFilter;
 import com.example.gateway.filter.AuthenticationFilter;
+import com.example.gateway.filter.HedgingFilter;
 import com.example.gateway.filter.LoggingFilter;
 import com.example.gateway.filter.RateLimitFilter;
+import com.example.gateway.filter.RequestCoalescingFilter;
+import com.example.gateway.filter.ResponseCacheFilter;
+import com.example.gateway.filter.UploadSizeLimitFilter;
+import com.example.gateway.route.DynamicRouteTable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,51 +36,105 @@ public class GatewayConfig {
     @Autowired
     private RateLimitFilter rateLimitFilter;
     
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+    
+    @Autowired
+    private RequestCoalescingFilter requestCoalescingFilter;
+    
+    @Autowired
+    private UploadSizeLimitFilter uploadSizeLimitFilter;
+    
+    @Autowired
+    private HedgingFilter hedgingFilter;
+    
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+    
+    @Autowired
+    private DynamicRouteTable routeTable;
+    
+    /**
+     * 路由定位器
+     * 每次刷新时按动态路由表重新构建，上游地址和可选过滤器可在不重启网关的情况下变更
+     */
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+        return () -> buildRoutes(builder).getRoutes();
+    }
+    
+    private RouteLocator buildRoutes(RouteLocatorBuilder builder) {
         return builder.routes()
-            // 认证服务路由
+            // 认证服务路由（登录、刷新令牌为关键路径，过载时优先保障）
             .route("auth-service", r -> r
                 .path("/api/auth/**")
-                .filters(f -> f
-                    .stripPrefix(1)
-                    .filter(loggingFilter)
-                    .filter(rateLimitFilter))
-                .uri(ServerConfigUtils.getAuthServiceUrl()))
+                .filters(f -> {
+                    f.stripPrefix(1)
+                        .filter(admissionControlFilter);
+                    optionalFilter(f, "auth-service", "logging", loggingFilter);
+                    optionalFilter(f, "auth-service", "rateLimit", rateLimitFilter);
+                    return f;
+                })
+                .uri(routeTable.resolveUri("auth-service", ServerConfigUtils.getAuthServiceUrl())))
             
             // 用户服务路由
             .route("user-service", r -> r
                 .path("/api/user/**")
-                .filters(f -> f
-                    .stripPrefix(1)
-                    .filter(authenticationFilter)
-                    .filter(loggingFilter)
-                    .filter(rateLimitFilter))
-                .uri(ServerConfigUtils.getUserServiceUrl()))
+                .filters(f -> {
+                    f.stripPrefix(1)
+                        .filter(admissionControlFilter)
+                        .filter(authenticationFilter);
+                    optionalFilter(f, "user-service", "logging", loggingFilter);
+                    optionalFilter(f, "user-service", "rateLimit", rateLimitFilter);
+                    optionalFilter(f, "user-service", "responseCache", responseCacheFilter);
+                    optionalFilter(f, "user-service", "requestCoalescing", requestCoalescingFilter);
+                    optionalFilter(f, "user-service", "hedging", hedgingFilter);
+                    return f;
+                })
+                .uri(routeTable.resolveUri("user-service", ServerConfigUtils.getUserServiceUrl())))
             
-            // 文件服务路由
+            // 文件服务路由（上传请求体流式透传，超限提前拒绝）
             .route("file-service", r -> r
                 .path("/api/file/**")
-                .filters(f -> f
-                    .stripPrefix(1)
-                    .filter(authenticationFilter)
-                    .filter(loggingFilter)
-                    .filter(rateLimitFilter))
-                .uri(ServerConfigUtils.getFileServiceUrl()))
+                .filters(f -> {
+                    f.stripPrefix(1)
+                        .filter(admissionControlFilter)
+                        .filter(uploadSizeLimitFilter)
+                        .filter(authenticationFilter);
+                    optionalFilter(f, "file-service", "logging", loggingFilter);
+                    optionalFilter(f, "file-service", "rateLimit", rateLimitFilter);
+                    optionalFilter(f, "file-service", "responseCache", responseCacheFilter);
+                    optionalFilter(f, "file-service", "requestCoalescing", requestCoalescingFilter);
+                    optionalFilter(f, "file-service", "hedging", hedgingFilter);
+                    return f;
+                })
+                .uri(routeTable.resolveUri("file-service", ServerConfigUtils.getFileServiceUrl())))
             
             // 管理服务路由
             .route("admin-service", r -> r
                 .path("/api/admin/**")
-                .filters(f -> f
-                    .stripPrefix(1)
-                    .filter(authenticationFilter)
-                    .filter(loggingFilter)
-                    .filter(rateLimitFilter))
-                .uri(ServerConfigUtils.getAdminServiceUrl()))
+                .filters(f -> {
+                    f.stripPrefix(1)
+                        .filter(admissionControlFilter)
+                        .filter(authenticationFilter);
+                    optionalFilter(f, "admin-service", "logging", loggingFilter);
+                    optionalFilter(f, "admin-service", "rateLimit", rateLimitFilter);
+                    return f;
+                })
+                .uri(routeTable.resolveUri("admin-service", ServerConfigUtils.getAdminServiceUrl())))
             
             .build();
     }
     
+    /**
+     * 按动态路由表添加可选过滤器，认证、准入控制等必选过滤器不受影响
+     */
+    private void optionalFilter(GatewayFilterSpec spec, String routeId, String filterName, GatewayFilter filter) {
+        if (routeTable.isFilterEnabled(routeId, filterName)) {
+            spec.filter(filter);
+        }
+    }
+    
     @Bean
     public CorsWebFilter corsWebFilter() {
         CorsConfiguration corsConfig = new CorsConfiguration();
@@ -0,0 +1,168 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关对冲请求配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * 是否启用对冲请求（需为路由配置至少两个实例）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 对冲请求占原始请求的最大百分比
+     */
+    private int budgetPercent = 5;
+
+    /**
+     * 对冲预算统计窗口
+     */
+    private Duration budgetWindow = Duration.ofSeconds(10);
+
+    /**
+     * 样本不足时使用的对冲等待时间
+     */
+    private Duration defaultDelay = Duration.ofMillis(50);
+
+    /**
+     * 对冲等待时间下限，避免p95过小时过度对冲
+     */
+    private Duration minDelay = Duration.ofMillis(5);
+
+    /**
+     * 使用观测p95前需要的最少样本数
+     */
+    private int minSamples = 100;
+
+    /**
+     * 按路由ID配置的对冲规则
+     */
+    private Map<String, RouteHedging> routes = new HashMap<>();
+
+    public HedgingProperties() {
+        routes.put("user-service", new RouteHedging(Arrays.asList("/user/{id:\\d+}")));
+        routes.put("file-service", new RouteHedging(Arrays.asList("/file/{id:\\d+}")));
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    public void setBudgetPercent(int budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+
+    public Duration getBudgetWindow() {
+        return budgetWindow;
+    }
+
+    public void setBudgetWindow(Duration budgetWindow) {
+        this.budgetWindow = budgetWindow;
+    }
+
+    public Duration getDefaultDelay() {
+        return defaultDelay;
+    }
+
+    public void setDefaultDelay(Duration defaultDelay) {
+        this.defaultDelay = defaultDelay;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public Map<String, RouteHedging> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RouteHedging> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * 单个路由的对冲规则
+     */
+    public static class RouteHedging {
+        /**
+         * 上游实例地址，为空时仅使用路由URI（单实例不对冲）
+         */
+        private List<String> instances = new ArrayList<>();
+
+        /**
+         * 标记为幂等、允许对冲的路径（去掉/api前缀后的路径）
+         */
+        private List<String> patterns = new ArrayList<>();
+
+        public RouteHedging() {}
+
+        public RouteHedging(List<String> patterns) {
+            this.patterns = new ArrayList<>(patterns);
+        }
+
+        /**
+         * 判断路径是否允许对冲
+         */
+        public boolean matches(String path) {
+            for (String pattern : patterns) {
+                if (PATH_MATCHER.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public List<String> getInstances() {
+            return instances;
+        }
+
+        public void setInstances(List<String> instances) {
+            this.instances = instances;
+        }
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns;
+        }
+    }
+}
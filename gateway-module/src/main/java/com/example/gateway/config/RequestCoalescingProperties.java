@@ -0,0 +1,104 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 网关请求合并配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class RequestCoalescingProperties {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * 是否启用请求合并
+     */
+    private boolean enabled = true;
+
+    /**
+     * 单个在途请求允许挂靠的最大等待者数量，超过后直接请求后端
+     */
+    private int maxWaiters = 256;
+
+    /**
+     * 可共享响应体的最大字节数，超过则各请求独立转发
+     */
+    private int maxBodyBytes = 1024 * 1024;
+
+    /**
+     * 等待者等待共享响应的超时时间，超时后独立转发
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 允许合并的路径（去掉/api前缀后的路径）
+     */
+    private List<String> patterns = new ArrayList<>(Arrays.asList(
+        "/user/check-username",
+        "/user/check-email",
+        "/user/{id:\\d+}",
+        "/file/{id:\\d+}",
+        "/file/thumbnail/{id:\\d+}"
+    ));
+
+    /**
+     * 判断路径是否允许合并
+     */
+    public boolean matches(String path) {
+        for (String pattern : patterns) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxWaiters() {
+        return maxWaiters;
+    }
+
+    public void setMaxWaiters(int maxWaiters) {
+        this.maxWaiters = maxWaiters;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(List<String> patterns) {
+        this.patterns = patterns;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 网关响应缓存配置属性
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheProperties {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * 是否启用响应缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缓存总容量上限（字节）
+     */
+    private long maxWeightBytes = 64L * 1024 * 1024;
+
+    /**
+     * 单个响应体可缓存的最大字节数，超过则直接透传；未声明Content-Length的响应最多聚合这么多字节
+     */
+    private int maxBodyBytes = 256 * 1024;
+
+    /**
+     * 后端服务发布缓存失效消息的Redis频道
+     */
+    private String invalidationChannel = "gateway:cache:invalidate";
+
+    /**
+     * 缓存规则，按顺序匹配（路径为去掉/api前缀后的路径）
+     */
+    private List<Rule> rules = new ArrayList<>(Arrays.asList(
+        new Rule("/user/check-username", Duration.ofSeconds(10), false),
+        new Rule("/user/check-email", Duration.ofSeconds(10), false),
+        new Rule("/user/{id:\\d+}", Duration.ofSeconds(60), true),
+        new Rule("/file/{id:\\d+}", Duration.ofSeconds(60), true)
+    ));
+
+    /**
+     * 查找与路径匹配的缓存规则
+     */
+    public Rule findRule(String path) {
+        for (Rule rule : rules) {
+            if (PATH_MATCHER.match(rule.getPattern(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxWeightBytes() {
+        return maxWeightBytes;
+    }
+
+    public void setMaxWeightBytes(long maxWeightBytes) {
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    public void setInvalidationChannel(String invalidationChannel) {
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * 缓存规则
+     */
+    public static class Rule {
+        private String pattern;
+        private Duration ttl = Duration.ofSeconds(30);
+        private boolean varyByUser = true;
+
+        public Rule() {}
+
+        public Rule(String pattern, Duration ttl, boolean varyByUser) {
+            this.pattern = pattern;
+            this.ttl = ttl;
+            this.varyByUser = varyByUser;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public boolean isVaryByUser() {
+            return varyByUser;
+        }
+
+        public void setVaryByUser(boolean varyByUser) {
+            this.varyByUser = varyByUser;
+        }
+    }
+}
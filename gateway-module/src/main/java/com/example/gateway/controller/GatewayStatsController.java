@@ -0,0 +1,78 @@
+package com.example.gateway.controller;
+
+import com.example.common.web.ApiResponse;
+import com.example.gateway.cache.ResponseCacheStore;
+import com.example.gateway.filter.AdmissionControlFilter;
+import com.example.gateway.filter.HedgingFilter;
+import com.example.gateway.filter.RequestCoalescingFilter;
+import com.example.gateway.route.DynamicRouteTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * 网关运行统计控制器
+ */
+@RestController
+@RequestMapping("/gateway/stats")
+public class GatewayStatsController {
+
+    @Autowired
+    private ResponseCacheStore responseCacheStore;
+
+    @Autowired
+    private RequestCoalescingFilter requestCoalescingFilter;
+
+    @Autowired
+    private HedgingFilter hedgingFilter;
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Autowired
+    private DynamicRouteTable routeTable;
+
+    /**
+     * 响应缓存统计
+     */
+    @GetMapping("/cache")
+    public Mono<ApiResponse<Map<String, Object>>> cacheStatistics() {
+        return Mono.just(ApiResponse.success(responseCacheStore.getStatistics()));
+    }
+
+    /**
+     * 请求合并统计
+     */
+    @GetMapping("/coalescing")
+    public Mono<ApiResponse<Map<String, Object>>> coalescingStatistics() {
+        return Mono.just(ApiResponse.success(requestCoalescingFilter.getStatistics()));
+    }
+
+    /**
+     * 对冲请求统计
+     */
+    @GetMapping("/hedging")
+    public Mono<ApiResponse<Map<String, Object>>> hedgingStatistics() {
+        return Mono.just(ApiResponse.success(hedgingFilter.getStatistics()));
+    }
+
+    /**
+     * 准入控制统计
+     */
+    @GetMapping("/admission")
+    public Mono<ApiResponse<Map<String, Object>>> admissionStatistics() {
+        return Mono.just(ApiResponse.success(admissionControlFilter.getStatistics()));
+    }
+
+    /**
+     * 动态路由表
+     */
+    @GetMapping("/routes")
+    public Mono<ApiResponse<Map<String, Object>>> routeStatistics() {
+        return Mono.just(ApiResponse.success(routeTable.getStatistics()));
+    }
+}
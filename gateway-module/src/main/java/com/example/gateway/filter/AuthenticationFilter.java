@@ -3,6 +3,7 @@ package com.example.gateway.filter;
 import com.example.common.util.JwtUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -69,13 +70,14 @@ public class AuthenticationFilter implements GatewayFilter {
         
         try {
             // 验证token
-            if (!validateToken(token)) {
+            Claims claims = validateToken(token);
+            if (claims == null) {
                 return handleUnauthorized(exchange, "token无效或已过期");
             }
             
             // 获取用户信息并添加到请求头
-            String username = jwtUtil.getUsernameFromToken(token);
-            Long userId = jwtUtil.getUserIdFromToken(token);
+            String username = claims.getSubject();
+            Long userId = Long.valueOf(claims.get("userId").toString());
             
             ServerHttpRequest modifiedRequest = request.mutate()
                 .header("X-User-Id", String.valueOf(userId))
@@ -108,28 +110,39 @@ public class AuthenticationFilter implements GatewayFilter {
     }
     
     /**
-     * 验证token
+     * 验证token，通过时返回解析出的Claims，否则返回null
      */
-    private boolean validateToken(String token) {
+    private Claims validateToken(String token) {
         try {
-            // 检查token是否在黑名单中
-            if (isTokenBlacklisted(token)) {
-                return false;
+            // 验证签名和过期时间（过期时解析直接抛出）
+            Claims claims = jwtUtil.parseToken(token);
+            if (claims.getSubject() == null) {
+                return null;
             }
             
-            // 验证token格式和过期时间
-            String username = jwtUtil.getUsernameFromToken(token);
-            return username != null && !jwtUtil.isTokenExpired(token);
+            // refresh token只能用于刷新接口，不能作为访问令牌
+            if (JwtUtil.isRefreshToken(claims)) {
+                return null;
+            }
+            
+            // 检查token是否在黑名单中，以及所属令牌家族是否已作废（refresh token重放或退出登录）
+            if (isKeyPresent("token_blacklist:" + token)) {
+                return null;
+            }
+            String familyId = claims.get(JwtUtil.CLAIM_FAMILY_ID, String.class);
+            if (familyId != null && isKeyPresent("revoked_family:" + familyId)) {
+                return null;
+            }
+            return claims;
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
     
     /**
-     * 检查token是否在黑名单中
+     * 检查黑名单键是否存在
      */
-    private boolean isTokenBlacklisted(String token) {
-        String key = "token_blacklist:" + token;
+    private boolean isKeyPresent(String key) {
         try {
             // 使用响应式Redis操作，这里简化处理，实际项目中应该使用响应式方式
             return Boolean.TRUE.equals(reactiveRedisTemplate.hasKey(key).block());
@@ -0,0 +1,67 @@
+package com.example.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 有上限的响应体聚合
+ * 未声明Content-Length时响应体大小未知，最多聚合limit字节；
+ * 未超出时把完整响应体交给complete，超出后把已聚合的部分和剩余数据一起交给passThrough直接透传
+ */
+final class BoundedBodyAggregator {
+
+    private BoundedBodyAggregator() {
+    }
+
+    static Mono<Void> aggregate(Publisher<? extends DataBuffer> body, long limit,
+                                Function<byte[], Mono<Void>> complete,
+                                Function<Flux<DataBuffer>, Mono<Void>> passThrough) {
+        long[] aggregated = {0};
+        return Flux.from(body)
+            .map(buffer -> (DataBuffer) buffer)
+            .bufferUntil(buffer -> (aggregated[0] += buffer.readableByteCount()) > limit)
+            .switchOnFirst((signal, chunks) -> {
+                List<DataBuffer> head = signal.get();
+                if (head != null && byteCount(head) > limit) {
+                    return passThrough.apply(chunks.concatMapIterable(chunk -> chunk));
+                }
+                // 未超出上限时上游已结束，只有这一组数据
+                return chunks.then(Mono.defer(() -> complete.apply(toBytes(head))));
+            })
+            .doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release)
+            .then();
+    }
+
+    private static long byteCount(List<DataBuffer> buffers) {
+        long count = 0;
+        for (DataBuffer buffer : buffers) {
+            count += buffer.readableByteCount();
+        }
+        return count;
+    }
+
+    /**
+     * 复制到字节数组并释放缓冲区
+     */
+    private static byte[] toBytes(List<DataBuffer> buffers) {
+        if (buffers == null) {
+            return new byte[0];
+        }
+        byte[] bytes = new byte[(int) byteCount(buffers)];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int length = buffer.readableByteCount();
+            buffer.read(bytes, offset, length);
+            offset += length;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.config.HedgingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲请求过滤器
+ * 对标记为幂等的GET请求，若首个实例在路由观测p95内未响应，则向另一实例发送第二次请求，
+ * 采用先返回响应头的结果并取消另一请求，响应体流式透传不在网关内聚合；对冲请求总量受预算百分比限制
+ * 命中时由本过滤器直接访问上游，不再经过默认的路由转发
+ */
+@Component
+public class HedgingFilter implements GatewayFilter {
+
+    private static final List<String> EXCLUDED_REQUEST_HEADERS = Arrays.asList(
+        HttpHeaders.HOST, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING);
+
+    private static final List<String> EXCLUDED_RESPONSE_HEADERS = Arrays.asList(
+        HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
+    @Autowired
+    private HedgingProperties hedgingProperties;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    private WebClient webClient;
+
+    private final ConcurrentHashMap<String, RouteHedgingState> routeStates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        webClient = webClientBuilder.build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!hedgingProperties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HedgingProperties.RouteHedging config = route != null ? hedgingProperties.getRoutes().get(route.getId()) : null;
+        if (config == null || !config.matches(request.getURI().getPath())) {
+            return chain.filter(exchange);
+        }
+
+        List<URI> instances = resolveInstances(config, route);
+        if (instances.size() < 2) {
+            return chain.filter(exchange);
+        }
+
+        RouteHedgingState state = routeStates.computeIfAbsent(route.getId(), id -> new RouteHedgingState());
+        state.countRequest(hedgingProperties);
+
+        int primaryIndex = state.nextIndex(instances.size());
+        URI primary = instances.get(primaryIndex);
+        URI secondary = instances.get((primaryIndex + 1) % instances.size());
+        long startTime = System.nanoTime();
+
+        // 只记录首个实例自身的延迟：被对冲请求抢先而取消时，已耗时间是其延迟的下界（不小于对冲等待时间）
+        AtomicBoolean sampled = new AtomicBoolean();
+        Flux<Object> firstAttempt = send(request, primary, false)
+            .doOnNext(signal -> {
+                if (signal instanceof UpstreamResponse && sampled.compareAndSet(false, true)) {
+                    state.record(System.nanoTime() - startTime);
+                }
+            })
+            .doOnCancel(() -> {
+                if (sampled.compareAndSet(false, true)) {
+                    state.record(System.nanoTime() - startTime);
+                }
+            });
+        Flux<Object> hedgedAttempt = Mono.delay(state.hedgeDelay(hedgingProperties))
+            .thenMany(Flux.defer(() -> state.tryAcquireHedge(hedgingProperties)
+                ? send(request, secondary, true)
+                : Flux.empty()));
+
+        return Flux.firstWithValue(firstAttempt, hedgedAttempt)
+            .onErrorMap(e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "上游服务不可用", e))
+            .switchOnFirst((signal, upstream) -> {
+                if (!(signal.get() instanceof UpstreamResponse)) {
+                    return upstream.then();
+                }
+                UpstreamResponse winner = (UpstreamResponse) signal.get();
+                if (winner.hedged) {
+                    state.hedgeWins.incrementAndGet();
+                }
+                return writeResponse(exchange, winner, upstream.skip(1).cast(DataBuffer.class));
+            })
+            .doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release)
+            .then();
+    }
+
+    /**
+     * 解析路由的上游实例列表
+     */
+    private List<URI> resolveInstances(HedgingProperties.RouteHedging config, Route route) {
+        List<URI> instances = new ArrayList<>();
+        if (config.getInstances().isEmpty()) {
+            instances.add(route.getUri());
+        } else {
+            for (String instance : config.getInstances()) {
+                instances.add(URI.create(instance));
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * 向指定实例发送请求，先发出响应状态和响应头，随后是响应体数据
+     */
+    private Flux<Object> send(ServerHttpRequest request, URI instance, boolean hedged) {
+        URI target = UriComponentsBuilder.fromUri(instance)
+            .replacePath(request.getURI().getRawPath())
+            .replaceQuery(request.getURI().getRawQuery())
+            .build(true)
+            .toUri();
+
+        return webClient.get()
+            .uri(target)
+            .headers(headers -> request.getHeaders().forEach((name, values) -> {
+                if (!containsIgnoreCase(EXCLUDED_REQUEST_HEADERS, name)) {
+                    headers.put(name, values);
+                }
+            }))
+            .exchangeToFlux(response -> Flux.concat(
+                Mono.just(new UpstreamResponse(response.rawStatusCode(), response.headers().asHttpHeaders(), hedged)),
+                response.bodyToFlux(DataBuffer.class)));
+    }
+
+    /**
+     * 将上游响应写回客户端
+     */
+    private Mono<Void> writeResponse(ServerWebExchange exchange, UpstreamResponse upstream, Flux<DataBuffer> body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(upstream.status);
+        upstream.headers.forEach((name, values) -> {
+            if (!containsIgnoreCase(EXCLUDED_RESPONSE_HEADERS, name)
+                    && !name.regionMatches(true, 0, "Access-Control-", 0, 15)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        return response.writeWith(body);
+    }
+
+    private static boolean containsIgnoreCase(List<String> names, String name) {
+        for (String candidate : names) {
+            if (candidate.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取对冲统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new HashMap<>();
+        routeStates.forEach((routeId, state) -> {
+            Map<String, Object> routeStats = new HashMap<>();
+            routeStats.put("requests", state.requests.get());
+            routeStats.put("hedgesSent", state.hedgesSent.get());
+            routeStats.put("hedgeWins", state.hedgeWins.get());
+            routeStats.put("budgetDenied", state.budgetDenied.get());
+            routeStats.put("p95Millis", TimeUnit.NANOSECONDS.toMillis(state.p95Nanos));
+            result.put(routeId, routeStats);
+        });
+        return result;
+    }
+
+    /**
+     * 上游响应状态和响应头
+     */
+    private static class UpstreamResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final boolean hedged;
+
+        UpstreamResponse(int status, HttpHeaders headers, boolean hedged) {
+            this.status = status;
+            this.headers = headers;
+            this.hedged = hedged;
+        }
+    }
+
+    /**
+     * 路由的对冲状态：延迟样本、预算窗口和统计计数
+     */
+    private static class RouteHedgingState {
+
+        private static final int SAMPLE_SIZE = 1024;
+        private static final int RECOMPUTE_INTERVAL = 128;
+
+        private final long[] samples = new long[SAMPLE_SIZE];
+        private final AtomicLong sampleCount = new AtomicLong();
+        private volatile long p95Nanos;
+
+        private final AtomicInteger roundRobin = new AtomicInteger();
+
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong hedgesSent = new AtomicLong();
+        private final AtomicLong hedgeWins = new AtomicLong();
+        private final AtomicLong budgetDenied = new AtomicLong();
+
+        private long windowStart = System.nanoTime();
+        private long windowRequests;
+        private long windowHedges;
+
+        int nextIndex(int size) {
+            return (roundRobin.getAndIncrement() & Integer.MAX_VALUE) % size;
+        }
+
+        /**
+         * 记录一次首个实例请求的延迟，并定期重新计算p95
+         */
+        synchronized void record(long latencyNanos) {
+            long count = sampleCount.getAndIncrement();
+            samples[(int) (count % SAMPLE_SIZE)] = latencyNanos;
+            if ((count + 1) % RECOMPUTE_INTERVAL == 0) {
+                int filled = (int) Math.min(count + 1, SAMPLE_SIZE);
+                long[] sorted = Arrays.copyOf(samples, filled);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) (filled * 0.95) - 1];
+            }
+        }
+
+        /**
+         * 对冲等待时间：样本充足时取观测p95
+         */
+        Duration hedgeDelay(HedgingProperties properties) {
+            if (sampleCount.get() < properties.getMinSamples() || p95Nanos == 0) {
+                return properties.getDefaultDelay();
+            }
+            long delay = Math.max(p95Nanos, properties.getMinDelay().toNanos());
+            return Duration.ofNanos(delay);
+        }
+
+        /**
+         * 在预算允许时占用一次对冲
+         */
+        synchronized boolean tryAcquireHedge(HedgingProperties properties) {
+            if ((windowHedges + 1) * 100 > windowRequests * properties.getBudgetPercent()) {
+                budgetDenied.incrementAndGet();
+                return false;
+            }
+            windowHedges++;
+            hedgesSent.incrementAndGet();
+            return true;
+        }
+
+        /**
+         * 计入一次可对冲请求
+         */
+        synchronized void countRequest(HedgingProperties properties) {
+            long now = System.nanoTime();
+            if (now - windowStart > properties.getBudgetWindow().toNanos()) {
+                windowStart = now;
+                windowRequests = 0;
+                windowHedges = 0;
+            }
+            windowRequests++;
+            requests.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.gateway.filter;
+
+import com.example.common.config.ServerConfig;
+import com.example.common.util.ServerConfigUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * IP访问控制过滤器
+ * 作为网关的第一道过滤，在路由匹配之前按已编译的CIDR规则拦截被拒绝的客户端地址；
+ * server.config.security下的配置变更时重新编译规则并原子替换
+ */
+@Component
+public class IpAccessWebFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(IpAccessWebFilter.class);
+
+    private static final String SECURITY_PREFIX = "server.config.security";
+
+    @Autowired
+    private Environment environment;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null
+                || ServerConfigUtils.getIpAccessRules().isPermitted(remoteAddress.getAddress().getAddress())) {
+            return chain.filter(exchange);
+        }
+
+        logger.warn("IP地址禁止访问 - IP: {}, 路径: {}",
+            remoteAddress.getAddress().getHostAddress(), exchange.getRequest().getURI().getPath());
+        return handleForbidden(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * 配置变更时重新编译IP访问规则，规则有误时保留原规则
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(SECURITY_PREFIX))) {
+            return;
+        }
+
+        ServerConfig.Security security = Binder.get(environment)
+            .bind(SECURITY_PREFIX, ServerConfig.Security.class)
+            .orElseGet(ServerConfig.Security::new);
+        try {
+            ServerConfigUtils.updateIpAccessRules(
+                security.getAllowedIps(), security.getDeniedIps(), security.isEnforceAllowList());
+            logger.info("IP访问规则已更新 - 允许: {}, 拒绝: {}",
+                ServerConfigUtils.getIpAccessRules().getAllowedCount(),
+                ServerConfigUtils.getIpAccessRules().getDeniedCount());
+        } catch (IllegalArgumentException e) {
+            logger.error("IP访问规则无效，保留原规则: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 处理禁止访问
+     */
+    private Mono<Void> handleForbidden(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.FORBIDDEN);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 403);
+        result.put("message", "IP地址禁止访问");
+        result.put("timestamp", System.currentTimeMillis());
+
+        try {
+            String body = objectMapper.writeValueAsString(result);
+            DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.config.RequestCoalescingProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求合并过滤器（single-flight）
+ * 相同路由、路径、查询串和用户范围的GET请求在途时，后到的请求不再访问后端，
+ * 而是等待首个请求的响应并共享其结果；共享失败或超时时退回独立转发
+ * 需放在认证过滤器之后、响应缓存过滤器之后
+ */
+@Component
+public class RequestCoalescingFilter implements GatewayFilter {
+
+    @Autowired
+    private RequestCoalescingProperties coalescingProperties;
+
+    private final ConcurrentHashMap<String, InFlightRequest> inFlightRequests = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaderRequests = new AtomicLong();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong overflowRequests = new AtomicLong();
+    private final AtomicLong fallbackRequests = new AtomicLong();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!coalescingProperties.isEnabled() || request.getMethod() != HttpMethod.GET
+                || !coalescingProperties.matches(request.getURI().getPath())) {
+            return chain.filter(exchange);
+        }
+
+        String key = buildKey(exchange);
+        InFlightRequest created = new InFlightRequest();
+        InFlightRequest existing = inFlightRequests.putIfAbsent(key, created);
+        if (existing == null) {
+            return lead(exchange, chain, key, created);
+        }
+
+        if (!existing.tryJoin(coalescingProperties.getMaxWaiters())) {
+            overflowRequests.incrementAndGet();
+            return chain.filter(exchange);
+        }
+
+        return existing.sink.asMono()
+            .timeout(coalescingProperties.getWaitTimeout())
+            .onErrorResume(e -> Mono.empty())
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(shared -> {
+                if (shared.isPresent()) {
+                    coalescedRequests.incrementAndGet();
+                    return writeSharedResponse(exchange, shared.get());
+                }
+                // 首个请求未产生可共享的响应，独立转发
+                fallbackRequests.incrementAndGet();
+                return chain.filter(exchange);
+            });
+    }
+
+    /**
+     * 作为首个请求转发到后端，并将响应发布给等待者
+     */
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, InFlightRequest inFlight) {
+        leaderRequests.incrementAndGet();
+        CapturingResponseDecorator decorator = new CapturingResponseDecorator(exchange.getResponse(), key, inFlight);
+        return chain.filter(exchange.mutate().response(decorator).build())
+            .doFinally(signal -> {
+                inFlightRequests.remove(key, inFlight);
+                inFlight.sink.tryEmitEmpty();
+            });
+    }
+
+    /**
+     * 构建合并键：路由 + 路径 + 查询串 + 用户范围
+     */
+    private String buildKey(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+        String userId = request.getHeaders().getFirst("X-User-Id");
+        String rawQuery = request.getURI().getRawQuery();
+        return routeId + "|" + request.getURI().getPath() + "|" + (rawQuery != null ? rawQuery : "")
+            + "|" + (userId != null ? userId : "anonymous");
+    }
+
+    /**
+     * 将共享响应写入当前请求
+     */
+    private Mono<Void> writeSharedResponse(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(shared.status);
+        response.getHeaders().putAll(shared.headers);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body)));
+    }
+
+    /**
+     * 获取请求合并统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("inFlight", inFlightRequests.size());
+        result.put("leaderRequests", leaderRequests.get());
+        result.put("coalescedRequests", coalescedRequests.get());
+        result.put("overflowRequests", overflowRequests.get());
+        result.put("fallbackRequests", fallbackRequests.get());
+        return result;
+    }
+
+    /**
+     * 在途请求
+     */
+    private static class InFlightRequest {
+        private final Sinks.One<SharedResponse> sink = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        boolean tryJoin(int maxWaiters) {
+            if (waiters.incrementAndGet() > maxWaiters) {
+                waiters.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 可共享的响应快照
+     */
+    private static class SharedResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        SharedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * 捕获首个请求响应的装饰器
+     */
+    private class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final InFlightRequest inFlight;
+
+        CapturingResponseDecorator(ServerHttpResponse delegate, String key, InFlightRequest inFlight) {
+            super(delegate);
+            this.key = key;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (headers.getContentLength() > coalescingProperties.getMaxBodyBytes()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+                release();
+                return super.writeWith(body);
+            }
+
+            // 未声明Content-Length时最多聚合maxBodyBytes字节，超出后放弃共享并直接透传
+            return BoundedBodyAggregator.aggregate(body, coalescingProperties.getMaxBodyBytes(),
+                bytes -> {
+                    Integer status = getRawStatusCode();
+                    if (status != null) {
+                        inFlightRequests.remove(key, inFlight);
+                        inFlight.sink.tryEmitValue(new SharedResponse(status, copySharableHeaders(headers, bytes.length), bytes));
+                    } else {
+                        release();
+                    }
+                    headers.setContentLength(bytes.length);
+                    return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                },
+                remaining -> {
+                    release();
+                    return getDelegate().writeWith(remaining);
+                });
+        }
+
+        /**
+         * 放弃共享，等待者改为独立转发
+         */
+        private void release() {
+            inFlightRequests.remove(key, inFlight);
+            inFlight.sink.tryEmitEmpty();
+        }
+
+        /**
+         * 复制可共享的响应头，跨域与逐跳头由各请求自行处理
+         */
+        private HttpHeaders copySharableHeaders(HttpHeaders source, int contentLength) {
+            HttpHeaders copy = new HttpHeaders();
+            source.forEach((name, values) -> {
+                if (!name.regionMatches(true, 0, "Access-Control-", 0, 15)
+                        && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                        && !HttpHeaders.CONNECTION.equalsIgnoreCase(name)
+                        && !HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                    copy.put(name, new ArrayList<>(values));
+                }
+            });
+            copy.setContentLength(contentLength);
+            return copy;
+        }
+    }
+}
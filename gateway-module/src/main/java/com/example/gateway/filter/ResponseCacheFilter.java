@@ -0,0 +1,215 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.cache.CachedResponse;
+import com.example.gateway.cache.ResponseCacheStore;
+import com.example.gateway.config.ResponseCacheProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 响应缓存过滤器
+ * 对命中缓存规则的GET请求在网关内存中缓存响应，生成ETag并对If-None-Match返回304
+ * 需放在认证过滤器之后，以便按X-User-Id区分用户范围
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    @Autowired
+    private ResponseCacheProperties cacheProperties;
+
+    @Autowired
+    private ResponseCacheStore cacheStore;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!cacheProperties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String path = request.getURI().getPath();
+        ResponseCacheProperties.Rule rule = cacheProperties.findRule(path);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        String cacheKey = buildCacheKey(request, rule);
+
+        // 客户端要求不使用缓存时跳过查找，但仍刷新缓存
+        if (!isNoCacheRequest(request)) {
+            CachedResponse cached = cacheStore.get(cacheKey);
+            if (cached != null) {
+                return writeCachedResponse(exchange, cached);
+            }
+        }
+
+        CachingResponseDecorator decorator = new CachingResponseDecorator(exchange, cacheKey, rule);
+        return chain.filter(exchange.mutate().response(decorator).build());
+    }
+
+    /**
+     * 构建缓存键
+     */
+    private String buildCacheKey(ServerHttpRequest request, ResponseCacheProperties.Rule rule) {
+        String scope = "*";
+        if (rule.isVaryByUser()) {
+            String userId = request.getHeaders().getFirst("X-User-Id");
+            scope = userId != null ? userId : "anonymous";
+        }
+        return ResponseCacheStore.buildKey(request.getURI().getPath(), request.getURI().getRawQuery(), scope);
+    }
+
+    /**
+     * 判断请求是否要求绕过缓存
+     */
+    private boolean isNoCacheRequest(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && cacheControl.contains("no-cache");
+    }
+
+    /**
+     * 判断ETag是否与If-None-Match匹配
+     */
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        if (ifNoneMatch.isEmpty()) {
+            return false;
+        }
+
+        String target = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || target.equals(stripWeakPrefix(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * 直接从缓存写出响应
+     */
+    private Mono<Void> writeCachedResponse(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.getEtag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.getContentType() != null) {
+            headers.setContentType(cached.getContentType());
+        }
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    /**
+     * 捕获上游响应体并写入缓存的响应装饰器
+     */
+    private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String cacheKey;
+        private final ResponseCacheProperties.Rule rule;
+
+        CachingResponseDecorator(ServerWebExchange exchange, String cacheKey, ResponseCacheProperties.Rule rule) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.cacheKey = cacheKey;
+            this.rule = rule;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isStorable()) {
+                return super.writeWith(body);
+            }
+
+            // 超出maxBodyBytes后不再缓存，直接透传
+            return BoundedBodyAggregator.aggregate(body, cacheProperties.getMaxBodyBytes(),
+                this::writeAggregated, getDelegate()::writeWith);
+        }
+
+        /**
+         * 缓存完整的响应体并写出，If-None-Match匹配时返回304
+         */
+        private Mono<Void> writeAggregated(byte[] bytes) {
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag();
+            if (etag == null) {
+                etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                headers.setETag(etag);
+            }
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+
+            cacheStore.put(cacheKey, new CachedResponse(bytes, headers.getContentType(), etag,
+                rule.getTtl().toNanos()));
+
+            if (matchesIfNoneMatch(exchange.getRequest(), etag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                return getDelegate().setComplete();
+            }
+
+            headers.setContentLength(bytes.length);
+            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+
+        /**
+         * 判断上游响应是否可以缓存
+         */
+        private boolean isStorable() {
+            if (getStatusCode() != HttpStatus.OK) {
+                return false;
+            }
+
+            HttpHeaders headers = getHeaders();
+            if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+                return false;
+            }
+
+            long contentLength = headers.getContentLength();
+            if (contentLength > cacheProperties.getMaxBodyBytes()) {
+                return false;
+            }
+
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null) {
+                if (cacheControl.contains("no-store")) {
+                    return false;
+                }
+                // private响应只允许按用户区分的规则缓存
+                if (cacheControl.contains("private") && !rule.isVaryByUser()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传大小限制过滤器
+ * 请求体以流的方式透传到文件服务，不在网关聚合；
+ * 根据Content-Length提前拒绝超限请求，分块传输时在累计字节数超限后中断转发
+ */
+@Component
+public class UploadSizeLimitFilter implements GatewayFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSizeLimitFilter.class);
+
+    private static final String UPLOAD_PATH = "/file/upload";
+    private static final String BATCH_UPLOAD_PATH = "/file/upload/batch";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 单文件大小限制，与file-module共用shared-config.yml中的file.upload.max-size
+     */
+    @Value("${file.upload.max-size:10MB}")
+    private DataSize maxFileSize;
+
+    /**
+     * 批量上传的请求体大小限制
+     */
+    @Value("${gateway.upload.batch-max-size:100MB}")
+    private DataSize batchMaxSize;
+
+    /**
+     * multipart边界和表单字段的额外开销
+     */
+    @Value("${gateway.upload.multipart-overhead:64KB}")
+    private DataSize multipartOverhead;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        long limit = resolveLimit(request);
+        if (limit < 0) {
+            return chain.filter(exchange);
+        }
+
+        // 声明了Content-Length时直接判断，不读取请求体
+        long contentLength = request.getHeaders().getContentLength();
+        if (contentLength > limit) {
+            logger.warn("上传请求体过大，已拒绝 - 路径: {}, Content-Length: {}, 限制: {}",
+                request.getURI().getPath(), contentLength, limit);
+            return handlePayloadTooLarge(exchange, limit);
+        }
+
+        ServerHttpRequest limitedRequest = new SizeLimitedRequest(request, limit);
+        return chain.filter(exchange.mutate().request(limitedRequest).build());
+    }
+
+    /**
+     * 获取上传路径对应的大小限制，非上传请求返回-1
+     */
+    private long resolveLimit(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.POST) {
+            return -1;
+        }
+
+        String path = request.getURI().getPath();
+        if (BATCH_UPLOAD_PATH.equals(path)) {
+            return batchMaxSize.toBytes() + multipartOverhead.toBytes();
+        }
+        if (UPLOAD_PATH.equals(path)) {
+            return maxFileSize.toBytes() + multipartOverhead.toBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * 处理请求体超限
+     */
+    private Mono<Void> handlePayloadTooLarge(ServerWebExchange exchange, long limit) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        // 不再读取剩余请求体，响应后关闭连接
+        response.getHeaders().add(HttpHeaders.CONNECTION, "close");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 413);
+        result.put("message", "上传文件大小超过限制: " + limit + " 字节");
+        result.put("timestamp", System.currentTimeMillis());
+
+        try {
+            String body = objectMapper.writeValueAsString(result);
+            DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+
+    /**
+     * 对请求体逐块计数的请求装饰器，累计超过限制时以413中断转发
+     */
+    private static class SizeLimitedRequest extends ServerHttpRequestDecorator {
+
+        private final long limit;
+
+        SizeLimitedRequest(ServerHttpRequest delegate, long limit) {
+            super(delegate);
+            this.limit = limit;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            AtomicLong received = new AtomicLong();
+            return super.getBody().handle((buffer, sink) -> {
+                if (received.addAndGet(buffer.readableByteCount()) > limit) {
+                    DataBufferUtils.release(buffer);
+                    sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "上传文件大小超过限制: " + limit + " 字节"));
+                    return;
+                }
+                sink.next(buffer);
+            });
+        }
+    }
+}
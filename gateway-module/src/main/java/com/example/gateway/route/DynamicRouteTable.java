@@ -0,0 +1,172 @@
+package com.example.gateway.route;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 动态路由表
+ * 从Redis哈希加载各路由的上游地址和停用的过滤器，收到刷新消息或定时轮询发现变化时，
+ * 整体替换路由表并发布RefreshRoutesEvent；CachingRouteLocator在后台重建路由后原子切换，
+ * 切换前已进入的请求继续使用旧路由完成，不中断在途连接
+ */
+@Component
+public class DynamicRouteTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamicRouteTable.class);
+
+    @Autowired
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 存放路由覆盖项的Redis哈希键
+     */
+    @Value("${gateway.dynamic-routes.redis-key:gateway:routes}")
+    private String redisKey;
+
+    /**
+     * 路由变更通知频道
+     */
+    @Value("${gateway.dynamic-routes.refresh-channel:gateway:routes:refresh}")
+    private String refreshChannel;
+
+    /**
+     * 轮询间隔，用于补偿丢失的通知
+     */
+    @Value("${gateway.dynamic-routes.poll-interval:30s}")
+    private Duration pollInterval;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Map<String, RouteOverride> overrides = Collections.emptyMap();
+
+    private volatile long version;
+
+    private Disposable refreshSubscription;
+
+    private Disposable pollSubscription;
+
+    @PostConstruct
+    public void init() {
+        refreshSubscription = reactiveStringRedisTemplate.listenToChannel(refreshChannel)
+            .concatMap(message -> reload())
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                .doBeforeRetry(signal -> logger.warn("路由变更频道订阅中断，准备重连: {}", signal.failure().getMessage())))
+            .subscribe();
+
+        pollSubscription = Flux.interval(Duration.ZERO, pollInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> reload())
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refreshSubscription != null) {
+            refreshSubscription.dispose();
+        }
+        if (pollSubscription != null) {
+            pollSubscription.dispose();
+        }
+    }
+
+    /**
+     * 从Redis重新加载路由表，内容变化时替换并触发路由刷新
+     */
+    public Mono<Boolean> reload() {
+        return reactiveStringRedisTemplate.<String, String>opsForHash().entries(redisKey)
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .map(this::parse)
+            .map(this::apply)
+            .onErrorResume(e -> {
+                logger.warn("加载动态路由失败，继续使用当前路由表: {}", e.getMessage());
+                return Mono.just(false);
+            });
+    }
+
+    /**
+     * 替换路由表并发布刷新事件，内容未变化时不刷新
+     */
+    private synchronized boolean apply(Map<String, RouteOverride> loaded) {
+        if (loaded.equals(overrides)) {
+            return false;
+        }
+        overrides = Collections.unmodifiableMap(loaded);
+        version++;
+        logger.info("路由表已更新 - 版本: {}, 覆盖路由: {}", version, loaded.keySet());
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        return true;
+    }
+
+    /**
+     * 解析路由覆盖项，格式错误的条目忽略并回退到静态配置
+     */
+    private Map<String, RouteOverride> parse(Map<String, String> entries) {
+        Map<String, RouteOverride> result = new HashMap<>();
+        entries.forEach((routeId, value) -> {
+            try {
+                String trimmed = value.trim();
+                RouteOverride override = trimmed.startsWith("{")
+                    ? objectMapper.readValue(trimmed, RouteOverride.class)
+                    : new RouteOverride(trimmed);
+                if (override.getUri() != null) {
+                    URI uri = URI.create(override.getUri());
+                    if (uri.getScheme() == null || uri.getHost() == null) {
+                        throw new IllegalArgumentException("缺少协议或主机");
+                    }
+                }
+                result.put(routeId, override);
+            } catch (Exception e) {
+                logger.warn("忽略无效的路由配置 - 路由: {}, 值: {}, 原因: {}", routeId, value, e.getMessage());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取路由的上游地址，未覆盖时返回静态配置
+     */
+    public String resolveUri(String routeId, String defaultUri) {
+        RouteOverride override = overrides.get(routeId);
+        return override != null && override.getUri() != null ? override.getUri() : defaultUri;
+    }
+
+    /**
+     * 判断路由上的可选过滤器是否启用
+     */
+    public boolean isFilterEnabled(String routeId, String filterName) {
+        RouteOverride override = overrides.get(routeId);
+        return override == null || !override.getDisabledFilters().contains(filterName);
+    }
+
+    /**
+     * 获取路由表信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("version", version);
+        result.put("overrides", overrides);
+        return result;
+    }
+}
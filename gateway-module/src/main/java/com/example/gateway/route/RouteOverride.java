@@ -0,0 +1,63 @@
+package com.example.gateway.route;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 动态路由覆盖项
+ * 来自Redis哈希，字段为路由ID，值为上游地址或JSON：{"uri":"http://host:port","disabledFilters":["hedging"]}
+ */
+public class RouteOverride {
+
+    /**
+     * 上游地址，为空时使用静态配置
+     */
+    private String uri;
+
+    /**
+     * 停用的可选过滤器名称
+     */
+    private Set<String> disabledFilters = new HashSet<>();
+
+    public RouteOverride() {}
+
+    public RouteOverride(String uri) {
+        this.uri = uri;
+    }
+
+    // Getters and Setters
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public Set<String> getDisabledFilters() {
+        return disabledFilters;
+    }
+
+    public void setDisabledFilters(Set<String> disabledFilters) {
+        this.disabledFilters = disabledFilters != null ? disabledFilters : Collections.emptySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RouteOverride)) {
+            return false;
+        }
+        RouteOverride that = (RouteOverride) o;
+        return Objects.equals(uri, that.uri) && Objects.equals(disabledFilters, that.disabledFilters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uri, disabledFilters);
+    }
+}
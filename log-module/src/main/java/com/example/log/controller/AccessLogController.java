@@ -2,6 +2,7 @@ package com.example.log.controller;
 
 import com.example.common.web.ApiResponse;
 import com.example.common.web.PageResponse;
+import com.example.log.dto.AccessLogSummary;
 import com.example.log.entity.AccessLog;
 import com.example.log.service.AccessLogService;
 import io.swagger.annotations.Api;
@@ -32,13 +33,18 @@ public class AccessLogController {
      */
     @GetMapping("/user/{userId}")
     @ApiOperation("根据用户ID查询访问日志")
-    public ApiResponse<PageResponse<AccessLog>> getAccessLogsByUserId(
+    public ApiResponse<PageResponse<AccessLogSummary>> getAccessLogsByUserId(
             @ApiParam("用户ID") @PathVariable Long userId,
             @ApiParam("页码") @RequestParam(defaultValue = "0") int page,
-            @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size) {
+            @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size,
+            @ApiParam("分页游标，传入时使用游标分页（空字符串表示第一页），忽略page") @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            return ApiResponse.success(accessLogService.getAccessLogsByUserId(userId, cursor, size));
+        }
         
-        Page<AccessLog> logs = accessLogService.getAccessLogsByUserId(userId, page, size);
-        PageResponse<AccessLog> pageResponse = new PageResponse<AccessLog>(logs);
+        Page<AccessLogSummary> logs = accessLogService.getAccessLogsByUserId(userId, page, size);
+        PageResponse<AccessLogSummary> pageResponse = new PageResponse<AccessLogSummary>(logs);
         
         return ApiResponse.success(pageResponse);
     }
@@ -48,15 +54,15 @@ public class AccessLogController {
      */
     @GetMapping("/user/{userId}/range")
     @ApiOperation("根据用户ID和时间范围查询访问日志")
-    public ApiResponse<PageResponse<AccessLog>> getAccessLogsByUserIdAndTimeRange(
+    public ApiResponse<PageResponse<AccessLogSummary>> getAccessLogsByUserIdAndTimeRange(
             @ApiParam("用户ID") @PathVariable Long userId,
             @ApiParam("开始时间") @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
             @ApiParam("结束时间") @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
             @ApiParam("页码") @RequestParam(defaultValue = "0") int page,
             @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size) {
         
-        Page<AccessLog> logs = accessLogService.getAccessLogsByUserIdAndTimeRange(userId, startTime, endTime, page, size);
-        PageResponse<AccessLog> pageResponse = new PageResponse<AccessLog>(logs);
+        Page<AccessLogSummary> logs = accessLogService.getAccessLogsByUserIdAndTimeRange(userId, startTime, endTime, page, size);
+        PageResponse<AccessLogSummary> pageResponse = new PageResponse<AccessLogSummary>(logs);
         
         return ApiResponse.success(pageResponse);
     }
@@ -66,13 +72,18 @@ public class AccessLogController {
      */
     @GetMapping("/ip/{ipAddress}")
     @ApiOperation("根据IP地址查询访问日志")
-    public ApiResponse<PageResponse<AccessLog>> getAccessLogsByIpAddress(
+    public ApiResponse<PageResponse<AccessLogSummary>> getAccessLogsByIpAddress(
             @ApiParam("IP地址") @PathVariable String ipAddress,
             @ApiParam("页码") @RequestParam(defaultValue = "0") int page,
-            @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size) {
+            @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size,
+            @ApiParam("分页游标，传入时使用游标分页（空字符串表示第一页），忽略page") @RequestParam(required = false) String cursor) {
         
-        Page<AccessLog> logs = accessLogService.getAccessLogsByIpAddress(ipAddress, page, size);
-        PageResponse<AccessLog> pageResponse = new PageResponse<AccessLog>(logs);
+        if (cursor != null) {
+            return ApiResponse.success(accessLogService.getAccessLogsByIpAddress(ipAddress, cursor, size));
+        }
+        
+        Page<AccessLogSummary> logs = accessLogService.getAccessLogsByIpAddress(ipAddress, page, size);
+        PageResponse<AccessLogSummary> pageResponse = new PageResponse<AccessLogSummary>(logs);
         
         return ApiResponse.success(pageResponse);
     }
@@ -82,13 +93,13 @@ public class AccessLogController {
      */
     @GetMapping("/url")
     @ApiOperation("根据请求URL模糊查询")
-    public ApiResponse<PageResponse<AccessLog>> getAccessLogsByUrl(
+    public ApiResponse<PageResponse<AccessLogSummary>> getAccessLogsByUrl(
             @ApiParam("请求URL") @RequestParam String url,
             @ApiParam("页码") @RequestParam(defaultValue = "0") int page,
             @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size) {
         
-        Page<AccessLog> logs = accessLogService.getAccessLogsByUrl(url, page, size);
-        PageResponse<AccessLog> pageResponse = new PageResponse<AccessLog>(logs);
+        Page<AccessLogSummary> logs = accessLogService.getAccessLogsByUrl(url, page, size);
+        PageResponse<AccessLogSummary> pageResponse = new PageResponse<AccessLogSummary>(logs);
         
         return ApiResponse.success(pageResponse);
     }
@@ -98,12 +109,12 @@ public class AccessLogController {
      */
     @GetMapping("/exceptions")
     @ApiOperation("查询异常日志")
-    public ApiResponse<PageResponse<AccessLog>> getExceptionLogs(
+    public ApiResponse<PageResponse<AccessLogSummary>> getExceptionLogs(
             @ApiParam("页码") @RequestParam(defaultValue = "0") int page,
             @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size) {
         
-        Page<AccessLog> logs = accessLogService.getExceptionLogs(page, size);
-        PageResponse<AccessLog> pageResponse = new PageResponse<AccessLog>(logs);
+        Page<AccessLogSummary> logs = accessLogService.getExceptionLogs(page, size);
+        PageResponse<AccessLogSummary> pageResponse = new PageResponse<AccessLogSummary>(logs);
         
         return ApiResponse.success(pageResponse);
     }
@@ -113,12 +124,17 @@ public class AccessLogController {
      */
     @GetMapping("/all")
     @ApiOperation("查询所有访问日志")
-    public ApiResponse<PageResponse<AccessLog>> getAllAccessLogs(
+    public ApiResponse<PageResponse<AccessLogSummary>> getAllAccessLogs(
             @ApiParam("页码") @RequestParam(defaultValue = "0") int page,
-            @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size) {
+            @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size,
+            @ApiParam("分页游标，传入时使用游标分页（空字符串表示第一页），忽略page") @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            return ApiResponse.success(accessLogService.getAllAccessLogs(cursor, size));
+        }
         
-        Page<AccessLog> logs = accessLogService.getAllAccessLogs(page, size);
-        PageResponse<AccessLog> pageResponse = new PageResponse<AccessLog>(logs);
+        Page<AccessLogSummary> logs = accessLogService.getAllAccessLogs(page, size);
+        PageResponse<AccessLogSummary> pageResponse = new PageResponse<AccessLogSummary>(logs);
         
         return ApiResponse.success(pageResponse);
     }
@@ -0,0 +1,93 @@
+package com.example.log.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 访问日志列表项
+ * 列表查询只读取这些列，不加载请求参数、请求体、响应体、User-Agent和异常堆栈等大字段；
+ * 需要完整内容时通过详情接口获取AccessLog
+ */
+public class AccessLogSummary {
+
+    private final Long id;
+
+    private final Long userId;
+
+    private final String username;
+
+    private final String requestMethod;
+
+    private final String requestUrl;
+
+    private final Integer responseStatus;
+
+    private final String ipAddress;
+
+    private final Long executionTime;
+
+    private final LocalDateTime requestTime;
+
+    private final String moduleName;
+
+    private final String operationDesc;
+
+    public AccessLogSummary(Long id, Long userId, String username, String requestMethod, String requestUrl,
+                            Integer responseStatus, String ipAddress, Long executionTime,
+                            LocalDateTime requestTime, String moduleName, String operationDesc) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.requestMethod = requestMethod;
+        this.requestUrl = requestUrl;
+        this.responseStatus = responseStatus;
+        this.ipAddress = ipAddress;
+        this.executionTime = executionTime;
+        this.requestTime = requestTime;
+        this.moduleName = moduleName;
+        this.operationDesc = operationDesc;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRequestMethod() {
+        return requestMethod;
+    }
+
+    public String getRequestUrl() {
+        return requestUrl;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public Long getExecutionTime() {
+        return executionTime;
+    }
+
+    public LocalDateTime getRequestTime() {
+        return requestTime;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public String getOperationDesc() {
+        return operationDesc;
+    }
+}
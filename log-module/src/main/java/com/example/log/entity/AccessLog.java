@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
 @Table(name = "access_log", indexes = {
     @Index(name = "idx_user_id", columnList = "user_id"),
     @Index(name = "idx_request_time", columnList = "request_time"),
-    @Index(name = "idx_ip_address", columnList = "ip_address")
+    @Index(name = "idx_ip_address", columnList = "ip_address"),
+    // 游标分页按 (过滤列, request_time, id) 顺序扫描
+    @Index(name = "idx_user_id_request_time", columnList = "user_id, request_time"),
+    @Index(name = "idx_ip_address_request_time", columnList = "ip_address, request_time")
 })
 @ApiModel(description = "访问日志")
 public class AccessLog {
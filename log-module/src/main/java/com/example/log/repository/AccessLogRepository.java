@@ -1,5 +1,6 @@
 package com.example.log.repository;
 
+import com.example.log.dto.AccessLogSummary;
 import com.example.log.entity.AccessLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,41 +18,97 @@ import java.util.List;
 @Repository
 public interface AccessLogRepository extends JpaRepository<AccessLog, Long> {
     
+    /**
+     * 列表项的构造器表达式，只查询列表需要的列。
+     * 派生查询方法返回AccessLogSummary时，Spring Data按其构造器参数生成相同的查询
+     */
+    String SUMMARY_COLUMNS = "new com.example.log.dto.AccessLogSummary(a.id, a.userId, a.username, " +
+        "a.requestMethod, a.requestUrl, a.responseStatus, a.ipAddress, a.executionTime, a.requestTime, " +
+        "a.moduleName, a.operationDesc)";
+    
+    /**
+     * 分页查询所有访问日志
+     */
+    Page<AccessLogSummary> findAllBy(Pageable pageable);
+    
     /**
      * 根据用户ID查询访问日志
      */
-    Page<AccessLog> findByUserIdOrderByRequestTimeDesc(Long userId, Pageable pageable);
+    Page<AccessLogSummary> findByUserIdOrderByRequestTimeDesc(Long userId, Pageable pageable);
     
     /**
      * 根据用户ID和时间范围查询访问日志
      */
-    Page<AccessLog> findByUserIdAndRequestTimeBetweenOrderByRequestTimeDesc(
+    Page<AccessLogSummary> findByUserIdAndRequestTimeBetweenOrderByRequestTimeDesc(
             Long userId, LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
     
     /**
      * 根据IP地址查询访问日志
      */
-    Page<AccessLog> findByIpAddressOrderByRequestTimeDesc(String ipAddress, Pageable pageable);
+    Page<AccessLogSummary> findByIpAddressOrderByRequestTimeDesc(String ipAddress, Pageable pageable);
     
     /**
      * 根据请求URL模糊查询
      */
-    Page<AccessLog> findByRequestUrlContainingOrderByRequestTimeDesc(String url, Pageable pageable);
+    Page<AccessLogSummary> findByRequestUrlContainingOrderByRequestTimeDesc(String url, Pageable pageable);
     
     /**
      * 根据模块名称查询
      */
-    Page<AccessLog> findByModuleNameOrderByRequestTimeDesc(String moduleName, Pageable pageable);
+    Page<AccessLogSummary> findByModuleNameOrderByRequestTimeDesc(String moduleName, Pageable pageable);
     
     /**
      * 查询异常日志
      */
-    Page<AccessLog> findByExceptionInfoIsNotNullOrderByRequestTimeDesc(Pageable pageable);
+    Page<AccessLogSummary> findByExceptionInfoIsNotNullOrderByRequestTimeDesc(Pageable pageable);
     
     /**
      * 根据响应状态码查询
      */
-    Page<AccessLog> findByResponseStatusOrderByRequestTimeDesc(Integer responseStatus, Pageable pageable);
+    Page<AccessLogSummary> findByResponseStatusOrderByRequestTimeDesc(Integer responseStatus, Pageable pageable);
+    
+    /**
+     * 游标分页：第一页（按请求时间、ID倒序）
+     */
+    List<AccessLogSummary> findAllByOrderByRequestTimeDescIdDesc(Pageable pageable);
+    
+    /**
+     * 游标分页：游标之后的记录
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM AccessLog a " +
+           "WHERE a.requestTime < :requestTime OR (a.requestTime = :requestTime AND a.id < :id) " +
+           "ORDER BY a.requestTime DESC, a.id DESC")
+    List<AccessLogSummary> findAllAfter(@Param("requestTime") LocalDateTime requestTime, @Param("id") Long id,
+                                 Pageable pageable);
+    
+    /**
+     * 游标分页：用户访问日志第一页
+     */
+    List<AccessLogSummary> findByUserIdOrderByRequestTimeDescIdDesc(Long userId, Pageable pageable);
+    
+    /**
+     * 游标分页：用户访问日志游标之后的记录
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM AccessLog a WHERE a.userId = :userId " +
+           "AND (a.requestTime < :requestTime OR (a.requestTime = :requestTime AND a.id < :id)) " +
+           "ORDER BY a.requestTime DESC, a.id DESC")
+    List<AccessLogSummary> findByUserIdAfter(@Param("userId") Long userId, @Param("requestTime") LocalDateTime requestTime,
+                                      @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * 游标分页：IP访问日志第一页
+     */
+    List<AccessLogSummary> findByIpAddressOrderByRequestTimeDescIdDesc(String ipAddress, Pageable pageable);
+    
+    /**
+     * 游标分页：IP访问日志游标之后的记录
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM AccessLog a WHERE a.ipAddress = :ipAddress " +
+           "AND (a.requestTime < :requestTime OR (a.requestTime = :requestTime AND a.id < :id)) " +
+           "ORDER BY a.requestTime DESC, a.id DESC")
+    List<AccessLogSummary> findByIpAddressAfter(@Param("ipAddress") String ipAddress,
+                                         @Param("requestTime") LocalDateTime requestTime,
+                                         @Param("id") Long id, Pageable pageable);
     
     /**
      * 统计用户访问次数
@@ -1,5 +1,8 @@
 package com.example.log.service;
 
+import com.example.common.web.PageCursor;
+import com.example.common.web.PageResponse;
+import com.example.log.dto.AccessLogSummary;
 import com.example.log.entity.AccessLog;
 import com.example.log.repository.AccessLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,7 +42,7 @@ public class AccessLogService {
     /**
      * 根据用户ID分页查询访问日志
      */
-    public Page<AccessLog> getAccessLogsByUserId(Long userId, int page, int size) {
+    public Page<AccessLogSummary> getAccessLogsByUserId(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByUserIdOrderByRequestTimeDesc(userId, pageable);
     }
@@ -47,7 +50,7 @@ public class AccessLogService {
     /**
      * 根据用户ID和时间范围查询访问日志
      */
-    public Page<AccessLog> getAccessLogsByUserIdAndTimeRange(Long userId, LocalDateTime startTime, 
+    public Page<AccessLogSummary> getAccessLogsByUserIdAndTimeRange(Long userId, LocalDateTime startTime, 
                                                            LocalDateTime endTime, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByUserIdAndRequestTimeBetweenOrderByRequestTimeDesc(
@@ -57,7 +60,7 @@ public class AccessLogService {
     /**
      * 根据IP地址查询访问日志
      */
-    public Page<AccessLog> getAccessLogsByIpAddress(String ipAddress, int page, int size) {
+    public Page<AccessLogSummary> getAccessLogsByIpAddress(String ipAddress, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByIpAddressOrderByRequestTimeDesc(ipAddress, pageable);
     }
@@ -65,7 +68,7 @@ public class AccessLogService {
     /**
      * 根据请求URL模糊查询
      */
-    public Page<AccessLog> getAccessLogsByUrl(String url, int page, int size) {
+    public Page<AccessLogSummary> getAccessLogsByUrl(String url, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByRequestUrlContainingOrderByRequestTimeDesc(url, pageable);
     }
@@ -73,7 +76,7 @@ public class AccessLogService {
     /**
      * 根据模块名称查询
      */
-    public Page<AccessLog> getAccessLogsByModule(String moduleName, int page, int size) {
+    public Page<AccessLogSummary> getAccessLogsByModule(String moduleName, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByModuleNameOrderByRequestTimeDesc(moduleName, pageable);
     }
@@ -81,7 +84,7 @@ public class AccessLogService {
     /**
      * 查询异常日志
      */
-    public Page<AccessLog> getExceptionLogs(int page, int size) {
+    public Page<AccessLogSummary> getExceptionLogs(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByExceptionInfoIsNotNullOrderByRequestTimeDesc(pageable);
     }
@@ -89,7 +92,7 @@ public class AccessLogService {
     /**
      * 根据响应状态码查询
      */
-    public Page<AccessLog> getAccessLogsByStatus(Integer responseStatus, int page, int size) {
+    public Page<AccessLogSummary> getAccessLogsByStatus(Integer responseStatus, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return accessLogRepository.findByResponseStatusOrderByRequestTimeDesc(responseStatus, pageable);
     }
@@ -97,9 +100,45 @@ public class AccessLogService {
     /**
      * 分页查询所有访问日志
      */
-    public Page<AccessLog> getAllAccessLogs(int page, int size) {
+    public Page<AccessLogSummary> getAllAccessLogs(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return accessLogRepository.findAll(pageable);
+        return accessLogRepository.findAllBy(pageable);
+    }
+    
+    /**
+     * 游标分页查询所有访问日志，cursor为空时返回第一页
+     */
+    public PageResponse<AccessLogSummary> getAllAccessLogs(String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AccessLogSummary> rows = position == null
+                ? accessLogRepository.findAllByOrderByRequestTimeDescIdDesc(limit)
+                : accessLogRepository.findAllAfter(position.getSortKey(), position.getId(), limit);
+        return PageResponse.ofCursor(rows, size, AccessLogService::cursorOf);
+    }
+    
+    /**
+     * 根据用户ID游标分页查询访问日志
+     */
+    public PageResponse<AccessLogSummary> getAccessLogsByUserId(Long userId, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AccessLogSummary> rows = position == null
+                ? accessLogRepository.findByUserIdOrderByRequestTimeDescIdDesc(userId, limit)
+                : accessLogRepository.findByUserIdAfter(userId, position.getSortKey(), position.getId(), limit);
+        return PageResponse.ofCursor(rows, size, AccessLogService::cursorOf);
+    }
+    
+    /**
+     * 根据IP地址游标分页查询访问日志
+     */
+    public PageResponse<AccessLogSummary> getAccessLogsByIpAddress(String ipAddress, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AccessLogSummary> rows = position == null
+                ? accessLogRepository.findByIpAddressOrderByRequestTimeDescIdDesc(ipAddress, limit)
+                : accessLogRepository.findByIpAddressAfter(ipAddress, position.getSortKey(), position.getId(), limit);
+        return PageResponse.ofCursor(rows, size, AccessLogService::cursorOf);
     }
     
     /**
@@ -174,4 +213,8 @@ public class AccessLogService {
     public AccessLog getAccessLogById(Long id) {
         return accessLogRepository.findById(id).orElse(null);
     }
+    
+    private static PageCursor cursorOf(AccessLogSummary accessLog) {
+        return PageCursor.of(accessLog.getRequestTime(), accessLog.getId());
+    }
 }
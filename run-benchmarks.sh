@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# 认证链路JMH基准测试启动脚本
+# 不依赖CI，本地发布前运行，对比 benchmark-module/target/jmh-result.json 发现性能回退
+#
+# 用法：
+#   ./run-benchmarks.sh                  # 运行全部基准
+#   ./run-benchmarks.sh Jwt              # 只运行名称匹配的基准
+#   ./run-benchmarks.sh -wi 1 -i 2 Gateway   # 传入JMH参数（预热/测量轮数等）
+
+echo "认证链路JMH基准测试"
+echo "=============================="
+
+# 检查是否在正确的目录
+if [ ! -d "benchmark-module" ]; then
+    echo "请在项目根目录下运行此脚本"
+    exit 1
+fi
+
+# 结果中的 gc.alloc.rate.norm 为每次操作分配的字节数
+mvn -q -Pbenchmark -pl benchmark-module -am test -Dbenchmark.args="$*"
+
+echo ""
+echo "结果已保存到 benchmark-module/target/jmh-result.json"
@@ -3,7 +3,12 @@ package com.example.user.controller;
 import com.example.common.web.ApiResponse;
 import com.example.common.web.PageResponse;
 import com.example.common.util.JwtUtil;
+import com.example.user.dto.UserSummary;
 import com.example.user.entity.User;
+import com.example.user.search.UserSearchIndex;
+import com.example.user.service.UserBulkService;
+import com.example.user.service.UserCache;
+import com.example.user.service.UserImportService;
 import com.example.user.service.UserService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -18,9 +23,13 @@ import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * 用户控制器
@@ -33,6 +42,18 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserBulkService userBulkService;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
     @ApiOperation("获取当前用户信息")
     @GetMapping("/profile")
     public ApiResponse<User> getCurrentUser(HttpServletRequest request) {
@@ -110,9 +131,64 @@ public class UserController {
     @ApiOperation("批量删除用户")
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/batch")
-    public ApiResponse<String> batchDeleteUsers(@RequestBody BatchDeleteRequest request) {
-        userService.batchDeleteUsers(request.getIds());
-        return ApiResponse.success("批量删除成功");
+    public ApiResponse<String> batchDeleteUsers(@RequestBody BatchDeleteRequest request,
+                                              @ApiParam("是否异步执行，异步时返回任务ID") @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            String jobId = userBulkService.submit(UserBulkService.OPERATION_DELETE, request.getIds(), null);
+            return ApiResponse.success("批量删除任务已提交", jobId);
+        }
+        int deleted = userBulkService.deleteUsers(request.getIds());
+        return ApiResponse.success("批量删除成功，共删除" + deleted + "个用户");
+    }
+
+    @ApiOperation("批量恢复已删除用户")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/batch/restore")
+    public ApiResponse<String> batchRestoreUsers(@RequestBody BatchDeleteRequest request,
+                                               @ApiParam("是否异步执行，异步时返回任务ID") @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            String jobId = userBulkService.submit(UserBulkService.OPERATION_RESTORE, request.getIds(), null);
+            return ApiResponse.success("批量恢复任务已提交", jobId);
+        }
+        int restored = userBulkService.restoreUsers(request.getIds());
+        return ApiResponse.success("批量恢复成功，共恢复" + restored + "个用户");
+    }
+
+    @ApiOperation("批量启用/禁用用户")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/batch/status")
+    public ApiResponse<String> batchUpdateStatus(@RequestBody BatchStatusRequest request,
+                                               @ApiParam("是否异步执行，异步时返回任务ID") @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            String jobId = userBulkService.submit(UserBulkService.OPERATION_STATUS, request.getIds(), request.getStatus());
+            return ApiResponse.success("批量更新状态任务已提交", jobId);
+        }
+        int updated = userBulkService.updateStatus(request.getIds(), request.getStatus());
+        return ApiResponse.success("批量更新状态成功，共更新" + updated + "个用户");
+    }
+
+    @ApiOperation("查询批量任务进度")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/batch/jobs/{jobId}")
+    public ApiResponse<Map<Object, Object>> getBatchJob(@PathVariable String jobId) {
+        return ApiResponse.success(userBulkService.getJob(jobId));
+    }
+
+    @ApiOperation("批量导入用户")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/import")
+    public ApiResponse<Object> importUsers(
+            @ApiParam("数据格式：csv（首行为表头）或ndjson，不传时按Content-Type判断") @RequestParam(required = false) String format,
+            @ApiParam("是否异步执行，异步时返回任务ID，通过批量任务接口查询进度和结果；大文件应使用异步") @RequestParam(defaultValue = "false") boolean async,
+            HttpServletRequest request) throws IOException {
+        String resolvedFormat = format != null ? format.toLowerCase(Locale.ROOT) : resolveImportFormat(request.getContentType());
+        if (async) {
+            String jobId = userImportService.submitImport(request.getInputStream(), resolvedFormat);
+            return ApiResponse.success("导入任务已提交", jobId);
+        }
+        // 直接读取请求体流，边读边导入，不在内存或临时文件中缓存整个文件
+        UserImportService.ImportResult result = userImportService.importUsers(request.getInputStream(), resolvedFormat);
+        return ApiResponse.success("导入完成，成功" + result.getImported() + "个，失败" + result.getFailed() + "个", result);
     }
 
     @ApiOperation("重置用户密码")
@@ -145,17 +221,37 @@ public class UserController {
         return ApiResponse.success(statistics);
     }
     
+    @ApiOperation("获取用户缓存统计信息")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/stats")
+    public ApiResponse<Map<String, Object>> getUserCacheStatistics() {
+        return ApiResponse.success(userCache.getStatistics());
+    }
+    
+    @ApiOperation("获取用户搜索索引统计信息")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search/stats")
+    public ApiResponse<Map<String, Object>> getUserSearchStatistics() {
+        return ApiResponse.success(userSearchIndex.getStatistics());
+    }
+    
     @ApiOperation("分页查询用户列表")
     @GetMapping("/list")
-    public ApiResponse<PageResponse<User>> getUserList(
+    public ApiResponse<PageResponse<UserSummary>> getUserList(
             @ApiParam("页码") @RequestParam(defaultValue = "1") int page,
             @ApiParam("每页大小") @RequestParam(defaultValue = "10") int size,
-            @ApiParam("搜索关键字") @RequestParam(required = false) String keyword) {
-        
-        PageResponse<User> result = userService.findUsers(page, size, keyword);
+            @ApiParam("搜索关键字，匹配用户名、昵称、邮箱和手机号，结果按匹配程度排序并使用游标分页") @RequestParam(required = false) String keyword,
+            @ApiParam("分页游标，传入时使用游标分页（空字符串表示第一页），忽略page") @RequestParam(required = false) String cursor) {
         
-        // 不返回密码
-        result.getRecords().forEach(user -> user.setPassword(null));
+        // 列表只查询列表项需要的列，不包含密码
+        PageResponse<UserSummary> result;
+        if (StringUtils.hasText(keyword)) {
+            result = userService.searchUsers(keyword, cursor, size);
+        } else if (cursor != null) {
+            result = userService.findUsers(cursor, size);
+        } else {
+            result = userService.findUsers(page, size);
+        }
         
         return ApiResponse.success(result);
     }
@@ -194,6 +290,20 @@ public class UserController {
         return userId;
     }
     
+    /**
+     * 根据Content-Type判断导入格式
+     */
+    private String resolveImportFormat(String contentType) {
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json")) {
+            return UserImportService.FORMAT_NDJSON;
+        }
+        if (type.contains("csv")) {
+            return UserImportService.FORMAT_CSV;
+        }
+        throw new RuntimeException("无法识别导入格式，请通过format参数指定csv或ndjson");
+    }
+    
     /**
      * 从请求中提取token
      */
@@ -343,6 +453,19 @@ public class UserController {
         }
     }
     
+    public static class BatchStatusRequest extends BatchDeleteRequest {
+        @NotNull(message = "用户状态不能为空")
+        private Integer status;
+        
+        public Integer getStatus() {
+            return status;
+        }
+        
+        public void setStatus(Integer status) {
+            this.status = status;
+        }
+    }
+    
     public static class UserStatistics {
         private Long totalUsers;
         private Long activeUsers;
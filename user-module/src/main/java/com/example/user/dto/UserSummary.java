@@ -0,0 +1,71 @@
+package com.example.user.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户列表项
+ * 列表查询通过JPQL构造器表达式直接查询这些列，不加载完整实体（密码、头像、审计字段等），
+ * 也不进入持久化上下文；详情接口仍返回完整的User
+ */
+public class UserSummary {
+
+    private final Long id;
+
+    private final String username;
+
+    private final String nickname;
+
+    private final String email;
+
+    private final String phone;
+
+    private final Integer status;
+
+    private final LocalDateTime lastLoginTime;
+
+    private final LocalDateTime createTime;
+
+    public UserSummary(Long id, String username, String nickname, String email, String phone, Integer status,
+                       LocalDateTime lastLoginTime, LocalDateTime createTime) {
+        this.id = id;
+        this.username = username;
+        this.nickname = nickname;
+        this.email = email;
+        this.phone = phone;
+        this.status = status;
+        this.lastLoginTime = lastLoginTime;
+        this.createTime = createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getLastLoginTime() {
+        return lastLoginTime;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+}
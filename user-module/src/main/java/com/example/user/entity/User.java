@@ -1,5 +1,7 @@
 package com.example.user.entity;
 
+import com.example.user.search.UserChangeListener;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -8,7 +10,11 @@ import java.time.LocalDateTime;
  * 用户实体
  */
 @Entity
-@Table(name = "sys_user")
+@EntityListeners(UserChangeListener.class)
+@Table(name = "sys_user", indexes = {
+    // 用户列表按创建时间倒序游标分页
+    @Index(name = "idx_create_time", columnList = "create_time")
+})
 public class User implements Serializable {
     
     @Id
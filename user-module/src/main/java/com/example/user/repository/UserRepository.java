@@ -1,12 +1,18 @@
 package com.example.user.repository;
 
+import com.example.user.dto.UserSummary;
 import com.example.user.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,6 +21,12 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    /**
+     * 列表项的构造器表达式，只查询列表需要的列
+     */
+    String SUMMARY_COLUMNS = "new com.example.user.dto.UserSummary(" +
+        "u.id, u.username, u.nickname, u.email, u.phone, u.status, u.lastLoginTime, u.createTime)";
+    
     /**
      * 根据用户名查找用户
      */
@@ -55,4 +67,68 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * 统计指定时间后创建的用户数量
      */
     long countByCreateTimeAfterAndDeleted(LocalDateTime createTime, Integer deleted);
+    
+    /**
+     * 按天统计指定时间后注册的未删除用户数，返回（日期, 数量）
+     */
+    @Query(value = "SELECT DATE(create_time), COUNT(*) FROM sys_user " +
+                   "WHERE deleted = 0 AND create_time >= :since GROUP BY DATE(create_time)", nativeQuery = true)
+    List<Object[]> countDailyRegistrations(@Param("since") LocalDateTime since);
+    
+    /**
+     * 分页查询用户列表项（排序由pageable指定）
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM User u",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserSummary> findSummaries(Pageable pageable);
+    
+    /**
+     * 根据ID批量查询用户列表项
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM User u WHERE u.id IN :userIds")
+    List<UserSummary> findSummariesByIdIn(@Param("userIds") Collection<Long> userIds);
+    
+    /**
+     * 游标分页：第一页（按创建时间、ID倒序）
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM User u ORDER BY u.createTime DESC, u.id DESC")
+    List<UserSummary> findSummariesFirst(Pageable pageable);
+    
+    /**
+     * 游标分页：游标之后的用户
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM User u " +
+           "WHERE u.createTime < :createTime OR (u.createTime = :createTime AND u.id < :id) " +
+           "ORDER BY u.createTime DESC, u.id DESC")
+    List<UserSummary> findSummariesAfter(@Param("createTime") LocalDateTime createTime, @Param("id") Long id,
+                                         Pageable pageable);
+    
+    /**
+     * 批量操作前查询目标用户的缓存键和统计相关字段（id、用户名、邮箱、状态、删除标记、创建时间）
+     */
+    @Query("SELECT u.id, u.username, u.email, u.status, u.deleted, u.createTime FROM User u WHERE u.id IN :userIds")
+    List<Object[]> findBulkTargetsByIdIn(@Param("userIds") List<Long> userIds);
+    
+    /**
+     * 批量逻辑删除用户
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.deleted = 1, u.updateTime = :updateTime WHERE u.id IN :userIds AND u.deleted = 0")
+    int markDeleted(@Param("userIds") List<Long> userIds, @Param("updateTime") LocalDateTime updateTime);
+    
+    /**
+     * 批量恢复已逻辑删除的用户
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.deleted = 0, u.updateTime = :updateTime WHERE u.id IN :userIds AND u.deleted = 1")
+    int restoreDeleted(@Param("userIds") List<Long> userIds, @Param("updateTime") LocalDateTime updateTime);
+    
+    /**
+     * 批量更新用户状态
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.status = :status, u.updateTime = :updateTime " +
+           "WHERE u.id IN :userIds AND u.status <> :status")
+    int updateStatus(@Param("userIds") List<Long> userIds, @Param("status") Integer status,
+                     @Param("updateTime") LocalDateTime updateTime);
 }
@@ -0,0 +1,36 @@
+package com.example.user.search;
+
+import com.example.user.entity.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 用户实体变更监听器，作为搜索索引的变更来源
+ * 由Hibernate通过Spring容器创建，因此可以注入Bean
+ */
+public class UserChangeListener {
+
+    @Autowired
+    private ObjectProvider<UserSearchIndex> searchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(User user) {
+        UserSearchIndex index = searchIndex != null ? searchIndex.getIfAvailable() : null;
+        if (index != null) {
+            index.onSaved(user);
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(User user) {
+        UserSearchIndex index = searchIndex != null ? searchIndex.getIfAvailable() : null;
+        if (index != null) {
+            index.onRemoved(user.getId());
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package com.example.user.search;
+
+import com.example.common.web.PageCursor;
+import com.example.user.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 用户搜索索引
+ * 在内存中维护用户名、昵称、邮箱和手机号的n-gram倒排索引：关键字不少于3个字符时按三元组求交集，
+ * 1-2个字符时按字段前缀匹配，候选结果再校验并排序（完全匹配 > 用户名前缀 > 其他字段前缀 > 包含）。
+ * 启动时流式读取sys_user构建（失败时按指数退避重试），之后由UserChangeListener在事务提交后增量更新，
+ * 被索引字段实际变化时才更新并通过Redis发布/订阅通知其他实例
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final String SELECT_ALL_SQL =
+        "SELECT id, username, nickname, email, phone FROM sys_user WHERE deleted = 0";
+
+    private static final String SELECT_BY_IDS_SQL =
+        "SELECT id, username, nickname, email, phone FROM sys_user WHERE deleted = 0 AND id IN (%s)";
+
+    /**
+     * 批量重新加载和变更通知时每批的用户数
+     */
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    /**
+     * MySQL驱动在fetchSize为Integer.MIN_VALUE时逐行流式返回结果，不会一次性加载全表
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * 字段前缀词项的标记，与三元组区分
+     */
+    private static final char PREFIX_MARK = '^';
+
+    public static final int RANK_EXACT = 0;
+    public static final int RANK_USERNAME_PREFIX = 1;
+    public static final int RANK_PREFIX = 2;
+    public static final int RANK_CONTAINS = 3;
+
+    /**
+     * 已删除文档超过该数量且超过有效文档的COMPACT_RATIO时压缩倒排表
+     */
+    private static final int COMPACT_MIN_DELETED = 1024;
+
+    private static final double COMPACT_RATIO = 0.25;
+
+    /**
+     * 单次搜索最多返回的结果数
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * 构建失败后的首次重试间隔和最大间隔（毫秒）
+     */
+    private static final long REBUILD_INITIAL_BACKOFF_MILLIS = 5000;
+
+    private static final long REBUILD_MAX_BACKOFF_MILLIS = 300000;
+
+    private static final Comparator<Hit> RESULT_ORDER =
+        Comparator.comparingInt(Hit::getRank).thenComparing(Hit::getUserId, Comparator.reverseOrder());
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Value("${user.search.channel:user:search:changed}")
+    private String channel;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 按内部序号存放文档，序号只增不减，因此倒排表追加即有序；删除或更新时旧序号置空
+     */
+    private Document[] documents = new Document[1024];
+
+    private int nextOrdinal;
+
+    private int deletedCount;
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * 构建完成前索引不完整，搜索直接报错提示稍后重试
+     */
+    private volatile boolean ready;
+
+    /**
+     * 构建期间变更过的用户，构建完成后重新加载，避免被流式读取到的旧数据覆盖
+     */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    private ScheduledExecutorService rebuildScheduler;
+
+    @PostConstruct
+    public void init() {
+        // 先订阅再构建，构建期间其他实例的变更也会记录下来
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(
+            (message, pattern) -> onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+
+        rebuildScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuildScheduler.execute(() -> rebuild(REBUILD_INITIAL_BACKOFF_MILLIS));
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        rebuildScheduler.shutdownNow();
+        listenerContainer.destroy();
+    }
+
+    /**
+     * 从数据库流式读取全部有效用户，失败时清空已读入的部分并在backoffMillis后重试，重试间隔逐次翻倍
+     */
+    private void rebuild(long backoffMillis) {
+        long startTime = System.currentTimeMillis();
+        try {
+            clear();
+            JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+            streamingTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+            streamingTemplate.query(SELECT_ALL_SQL, rs -> {
+                put(toDocument(rs));
+            });
+            ready = true;
+            List<Long> changed = new ArrayList<>(changedDuringRebuild);
+            changedDuringRebuild.removeAll(changed);
+            reload(changed);
+            logger.info("用户搜索索引构建完成 - 用户: {}, 词项: {}, 耗时: {}ms",
+                ordinals.size(), postings.size(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            logger.warn("用户搜索索引构建失败，{}ms后重试: {}", backoffMillis, e.getMessage());
+            long nextBackoff = Math.min(backoffMillis * 2, REBUILD_MAX_BACKOFF_MILLIS);
+            rebuildScheduler.schedule(() -> rebuild(nextBackoff), backoffMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 用户保存后调用，事务提交后更新索引（逻辑删除的用户从索引中移除）
+     * 最后登录时间、头像、密码等未被索引的字段变化时索引不变，也不通知其他实例
+     */
+    public void onSaved(User user) {
+        Long userId = user.getId();
+        Document document = user.getDeleted() != null && user.getDeleted() != 0 ? null : new Document(userId,
+            user.getUsername(), user.getNickname(), user.getEmail(), user.getPhone());
+        afterCommit(() -> {
+            trackDuringRebuild(userId);
+            boolean changed = document != null ? put(document) : remove(userId);
+            if (changed || !ready) {
+                publish(Collections.singletonList(userId));
+            }
+        });
+    }
+
+    /**
+     * 用户被物理删除后调用
+     */
+    public void onRemoved(Long userId) {
+        afterCommit(() -> {
+            trackDuringRebuild(userId);
+            if (remove(userId) || !ready) {
+                publish(Collections.singletonList(userId));
+            }
+        });
+    }
+
+    /**
+     * 不经过实体的批量变更后调用，事务提交后从数据库重新加载这些用户
+     */
+    public void onChanged(Collection<Long> userIds) {
+        List<Long> changed = new ArrayList<>(userIds);
+        afterCommit(() -> {
+            changed.forEach(this::trackDuringRebuild);
+            reload(changed);
+            publish(changed);
+        });
+    }
+
+    /**
+     * 搜索用户，返回排在cursor之后的最多limit条结果（limit不超过MAX_LIMIT）
+     */
+    public List<Hit> search(String keyword, PageCursor after, int limit) {
+        if (!ready) {
+            throw new RuntimeException("用户搜索索引正在构建，请稍后重试");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RuntimeException("搜索结果数必须在1到" + MAX_LIMIT + "之间");
+        }
+        String query = normalize(keyword);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+
+        // 大顶堆只保留排序最靠前的limit条，候选很多时也不需要全量排序
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RESULT_ORDER.reversed());
+        lock.readLock().lock();
+        try {
+            for (int ordinal : candidates(query)) {
+                Document document = documents[ordinal];
+                if (document == null) {
+                    continue;
+                }
+                int rank = document.rank(query);
+                if (rank < 0 || (after != null && !isAfter(rank, document.userId, after))) {
+                    continue;
+                }
+                top.offer(new Hit(document.userId, rank));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(RESULT_ORDER);
+        return hits;
+    }
+
+    /**
+     * 获取索引统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("ready", ready);
+            stats.put("users", ordinals.size());
+            stats.put("terms", postings.size());
+            stats.put("deletedSlots", deletedCount);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            Postings prefix = postings.get(PREFIX_MARK + query);
+            return prefix != null ? prefix.toArray() : new int[0];
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        // 从最短的倒排表开始，逐个与其余表求交集；两边都有序，查找位置只向前推进
+        lists.sort(Comparator.comparingInt(Postings::size));
+        int[] result = lists.get(0).toArray();
+        int count = result.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            Postings list = lists.get(i);
+            int kept = 0;
+            int position = 0;
+            for (int j = 0; j < count && position < list.size(); j++) {
+                position = list.seek(position, result[j]);
+                if (position < list.size() && list.ordinals[position] == result[j]) {
+                    result[kept++] = result[j];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static boolean isAfter(int rank, long userId, PageCursor after) {
+        return rank > after.getSortValue() || (rank == after.getSortValue() && userId < after.getId());
+    }
+
+    /**
+     * 写入文档，被索引的字段与现有文档相同时不做任何修改并返回false
+     */
+    private boolean put(Document document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(document.userId);
+            if (existing != null && Arrays.equals(documents[existing].fields, document.fields)) {
+                return false;
+            }
+            removeLocked(document.userId);
+            compactIfNeededLocked();
+            int ordinal = nextOrdinal++;
+            if (ordinal == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+            documents[ordinal] = document;
+            ordinals.put(document.userId, ordinal);
+            for (String term : document.terms()) {
+                postings.computeIfAbsent(term, key -> new Postings()).add(ordinal);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除文档，索引中不存在时返回false
+     */
+    private boolean remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeLocked(userId);
+            compactIfNeededLocked();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 旧序号只在文档表中置空，倒排表中的旧序号留到压缩时清理
+     */
+    private boolean removeLocked(Long userId) {
+        Integer ordinal = ordinals.remove(userId);
+        if (ordinal == null) {
+            return false;
+        }
+        documents[ordinal] = null;
+        deletedCount++;
+        return true;
+    }
+
+    /**
+     * 清空索引，重新构建前调用
+     */
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            documents = new Document[1024];
+            nextOrdinal = 0;
+            deletedCount = 0;
+            ordinals.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 已删除的序号超过有效文档的一定比例时重新编号：新序号保持原有顺序，
+     * 因此倒排表只需按映射原地过滤，不需要重新切分词项
+     */
+    private void compactIfNeededLocked() {
+        if (deletedCount <= COMPACT_MIN_DELETED || deletedCount <= ordinals.size() * COMPACT_RATIO) {
+            return;
+        }
+        int[] remap = new int[nextOrdinal];
+        Document[] live = new Document[Math.max(1024, ordinals.size() * 2)];
+        int count = 0;
+        for (int i = 0; i < nextOrdinal; i++) {
+            if (documents[i] != null) {
+                remap[i] = count;
+                live[count] = documents[i];
+                ordinals.put(documents[i].userId, count);
+                count++;
+            } else {
+                remap[i] = -1;
+            }
+        }
+        documents = live;
+        nextOrdinal = count;
+        deletedCount = 0;
+        postings.values().removeIf(list -> list.remap(remap) == 0);
+    }
+
+    /**
+     * 按ID分批从数据库重新加载，查不到（已删除）的用户从索引中移除
+     */
+    private void reload(List<Long> userIds) {
+        for (int from = 0; from < userIds.size(); from += RELOAD_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RELOAD_BATCH_SIZE, userIds.size()));
+            try {
+                String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+                List<Document> rows = jdbcTemplate.query(String.format(SELECT_BY_IDS_SQL, placeholders),
+                    (rs, rowNum) -> toDocument(rs), batch.toArray());
+                Set<Long> missing = new HashSet<>(batch);
+                for (Document document : rows) {
+                    missing.remove(document.userId);
+                    put(document);
+                }
+                missing.forEach(this::remove);
+            } catch (Exception e) {
+                logger.warn("重新加载用户搜索索引失败: {}, 错误: {}", batch, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 通知其他实例，消息格式为"实例ID:用户ID,用户ID..."
+     */
+    private void publish(List<Long> userIds) {
+        for (int from = 0; from < userIds.size(); from += RELOAD_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RELOAD_BATCH_SIZE, userIds.size()));
+            StringBuilder message = new StringBuilder(instanceId).append(':');
+            for (int i = 0; i < batch.size(); i++) {
+                message.append(i > 0 ? "," : "").append(batch.get(i));
+            }
+            try {
+                stringRedisTemplate.convertAndSend(channel, message.toString());
+            } catch (Exception e) {
+                logger.warn("发布用户搜索索引变更失败: {}, 错误: {}", batch, e.getMessage());
+            }
+        }
+    }
+
+    private void onMessage(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>();
+        for (String userId : message.substring(separator + 1).split(",")) {
+            userIds.add(Long.valueOf(userId));
+        }
+        userIds.forEach(this::trackDuringRebuild);
+        reload(userIds);
+    }
+
+    private void trackDuringRebuild(Long userId) {
+        if (!ready) {
+            changedDuringRebuild.add(userId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Document toDocument(ResultSet rs) throws SQLException {
+        return new Document(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * 搜索命中
+     */
+    public static final class Hit {
+        private final long userId;
+        private final int rank;
+
+        Hit(long userId, int rank) {
+            this.userId = userId;
+            this.rank = rank;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+    }
+
+    /**
+     * 被索引的用户字段（已归一化），第一个字段为用户名
+     */
+    private static final class Document {
+        private final long userId;
+        private final String[] fields;
+
+        Document(long userId, String username, String nickname, String email, String phone) {
+            this.userId = userId;
+            this.fields = new String[] {normalize(username), normalize(nickname), normalize(email), normalize(phone)};
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>();
+            for (String field : fields) {
+                if (field == null) {
+                    continue;
+                }
+                for (int length = 1; length < GRAM_LENGTH && length <= field.length(); length++) {
+                    terms.add(PREFIX_MARK + field.substring(0, length));
+                }
+                terms.addAll(grams(field));
+            }
+            return terms;
+        }
+
+        /**
+         * 计算匹配等级，不匹配返回-1（三元组求交集可能有误报，这里做最终校验）
+         */
+        int rank(String query) {
+            int best = -1;
+            for (int i = 0; i < fields.length; i++) {
+                String field = fields[i];
+                if (field == null) {
+                    continue;
+                }
+                int rank;
+                if (field.equals(query)) {
+                    return RANK_EXACT;
+                } else if (field.startsWith(query)) {
+                    rank = i == 0 ? RANK_USERNAME_PREFIX : RANK_PREFIX;
+                } else if (field.contains(query)) {
+                    rank = RANK_CONTAINS;
+                } else {
+                    continue;
+                }
+                if (best < 0 || rank < best) {
+                    best = rank;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * 升序排列的文档序号表
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        /**
+         * 从from开始查找第一个不小于ordinal的位置：先按倍增步长跳跃再二分，
+         * 两表长度接近时接近线性合并，相差悬殊时接近二分查找
+         */
+        int seek(int from, int ordinal) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ordinals[high] < ordinal) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(ordinals, low, Math.min(high + 1, size), ordinal);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * 按映射替换序号并去掉已删除（映射为-1）的序号，返回剩余数量；映射单调递增，结果仍有序
+         */
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept++] = ordinal;
+                }
+            }
+            size = kept;
+            if (ordinals.length > 4 && size < ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size * 2));
+            }
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ordinals, size);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.user.service;
+
+import com.example.common.util.BaseUserAvailabilityIndex;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户名/邮箱占用索引，启动时从sys_user中未删除的用户重建，配置前缀为user.availability
+ */
+@Component
+public class UserAvailabilityIndex extends BaseUserAvailabilityIndex {
+
+    private static final String SELECT_TAKEN_SQL = "SELECT username, email FROM sys_user WHERE deleted = 0";
+
+    public UserAvailabilityIndex() {
+        super(SELECT_TAKEN_SQL, "user.availability");
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.user.service;
+
+import com.example.common.util.GatewayCacheInvalidator;
+import com.example.user.repository.UserRepository;
+import com.example.user.search.UserSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 用户批量操作服务
+ * 每批ID用一条UPDATE ... WHERE id IN (...)完成，每批单独提交事务，避免大批量操作长时间持有锁；
+ * 批次提交后统一清除缓存（管道化UNLINK）并刷新搜索索引。批量操作不保证整体原子性，
+ * 中途失败时已提交的批次保留。数量很大时可提交为异步任务，进度保存在Redis中，任意实例都可查询；
+ * 批量导入等其他耗时任务也通过submitJob在同一个任务队列中执行
+ */
+@Service
+public class UserBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkService.class);
+
+    private static final String JOB_KEY_PREFIX = "user:bulk:job:";
+
+    public static final String OPERATION_DELETE = "DELETE";
+    public static final String OPERATION_RESTORE = "RESTORE";
+    public static final String OPERATION_STATUS = "STATUS";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private UserStatisticsCounter statisticsCounter;
+
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 每条UPDATE语句（即每个事务）处理的用户数
+     */
+    @Value("${user.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * 等待执行的异步任务数上限，超出时拒绝提交
+     */
+    @Value("${user.bulk.max-queued-jobs:10}")
+    private int maxQueuedJobs;
+
+    /**
+     * 异步任务进度的保留时间
+     */
+    @Value("${user.bulk.job-ttl:24h}")
+    private Duration jobTtl;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 单线程依次执行，避免多个大批量任务同时争抢数据库
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueuedJobs),
+            runnable -> {
+                Thread thread = new Thread(runnable, "user-bulk-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 批量逻辑删除用户，返回实际删除的数量
+     */
+    public int deleteUsers(Collection<Long> userIds) {
+        return execute(OPERATION_DELETE, userIds, null, null);
+    }
+
+    /**
+     * 批量恢复已逻辑删除的用户，返回实际恢复的数量
+     */
+    public int restoreUsers(Collection<Long> userIds) {
+        return execute(OPERATION_RESTORE, userIds, null, null);
+    }
+
+    /**
+     * 批量更新用户状态，返回状态实际发生变化的数量
+     */
+    public int updateStatus(Collection<Long> userIds, Integer status) {
+        return execute(OPERATION_STATUS, userIds, status, null);
+    }
+
+    /**
+     * 提交异步批量任务，返回任务ID
+     */
+    public String submit(String operation, Collection<Long> userIds, Integer status) {
+        List<Long> ids = distinct(userIds);
+        Map<String, String> fields = new HashMap<>();
+        fields.put("total", String.valueOf(ids.size()));
+        fields.put("processed", "0");
+        fields.put("affected", "0");
+        return submitJob(operation, fields, progress -> {
+            execute(operation, ids, status, progress);
+            return null;
+        });
+    }
+
+    /**
+     * 提交异步任务，返回任务ID
+     *
+     * @param initialFields 任务记录的初始字段，如total
+     * @param job           任务内容，执行中通过progress更新进度字段，返回的字段在完成时写入任务记录
+     */
+    public String submitJob(String operation, Map<String, String> initialFields, Job job) {
+        String jobId = UUID.randomUUID().toString().replace("-", "");
+        String jobKey = JOB_KEY_PREFIX + jobId;
+
+        Map<String, String> fields = new HashMap<>(initialFields);
+        fields.put("operation", operation);
+        fields.put("state", "QUEUED");
+        fields.put("createTime", LocalDateTime.now().toString());
+        stringRedisTemplate.opsForHash().putAll(jobKey, fields);
+        stringRedisTemplate.expire(jobKey, jobTtl);
+
+        Consumer<Map<String, String>> progress = values -> stringRedisTemplate.opsForHash().putAll(jobKey, values);
+        try {
+            executor.execute(() -> {
+                stringRedisTemplate.opsForHash().put(jobKey, "state", "RUNNING");
+                try {
+                    Map<String, String> result = job.run(progress);
+                    if (result != null && !result.isEmpty()) {
+                        progress.accept(result);
+                    }
+                    stringRedisTemplate.opsForHash().put(jobKey, "state", "COMPLETED");
+                } catch (Exception e) {
+                    logger.warn("用户批量任务失败: {}, 操作: {}, 错误: {}", jobId, operation, e.getMessage());
+                    stringRedisTemplate.opsForHash().put(jobKey, "state", "FAILED");
+                    stringRedisTemplate.opsForHash().put(jobKey, "error", String.valueOf(e.getMessage()));
+                }
+                stringRedisTemplate.opsForHash().put(jobKey, "finishTime", LocalDateTime.now().toString());
+            });
+        } catch (RejectedExecutionException e) {
+            stringRedisTemplate.delete(jobKey);
+            throw new RuntimeException("批量任务过多，请稍后重试");
+        }
+        return jobId;
+    }
+
+    /**
+     * 查询异步任务进度
+     */
+    public Map<Object, Object> getJob(String jobId) {
+        Map<Object, Object> job = stringRedisTemplate.opsForHash().entries(JOB_KEY_PREFIX + jobId);
+        if (job.isEmpty()) {
+            throw new RuntimeException("批量任务不存在或已过期");
+        }
+        return job;
+    }
+
+    /**
+     * 按批执行，progress不为空时每批完成后更新进度
+     */
+    private int execute(String operation, Collection<Long> userIds, Integer status,
+                        Consumer<Map<String, String>> progress) {
+        if (OPERATION_STATUS.equals(operation) && status == null) {
+            throw new RuntimeException("用户状态不能为空");
+        }
+        List<Long> ids = distinct(userIds);
+        long startTime = System.currentTimeMillis();
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            affected += executeChunk(operation, chunk, status);
+            if (progress != null) {
+                Map<String, String> values = new HashMap<>();
+                values.put("processed", String.valueOf(from + chunk.size()));
+                values.put("affected", String.valueOf(affected));
+                progress.accept(values);
+            }
+        }
+        logger.info("用户批量操作完成 - 操作: {}, 请求: {}, 生效: {}, 耗时: {}ms",
+            operation, ids.size(), affected, System.currentTimeMillis() - startTime);
+        return affected;
+    }
+
+    private int executeChunk(String operation, List<Long> chunk, Integer status) {
+        List<Object[]> targets = new ArrayList<>();
+        Integer affected = transactionTemplate.execute(transaction -> {
+            targets.addAll(userRepository.findBulkTargetsByIdIn(chunk));
+            LocalDateTime now = LocalDateTime.now();
+            switch (operation) {
+                case OPERATION_DELETE:
+                    return userRepository.markDeleted(chunk, now);
+                case OPERATION_RESTORE:
+                    return userRepository.restoreDeleted(chunk, now);
+                case OPERATION_STATUS:
+                    return userRepository.updateStatus(chunk, status, now);
+                default:
+                    throw new RuntimeException("不支持的批量操作: " + operation);
+            }
+        });
+
+        // 事务已提交，缓存清除后不会再被读回旧数据
+        List<String> keys = new ArrayList<>(targets.size() * 3);
+        UserStatisticsCounter.Changes changes = new UserStatisticsCounter.Changes();
+        for (Object[] row : targets) {
+            Long userId = (Long) row[0];
+            String username = (String) row[1];
+            String email = (String) row[2];
+            keys.add(UserCache.idKey(userId));
+            keys.add(username);
+            keys.add(email);
+            recordChange(changes, operation, (Integer) row[3], (Integer) row[4], (LocalDateTime) row[5], status);
+            if (OPERATION_RESTORE.equals(operation)) {
+                availabilityIndex.markTaken(username, email);
+            }
+        }
+        userCache.evict(keys);
+        statisticsCounter.apply(changes);
+        // 状态不参与搜索，只有删除和恢复需要刷新索引
+        if (!OPERATION_STATUS.equals(operation)) {
+            userSearchIndex.onChanged(chunk);
+        }
+        gatewayCacheInvalidator.invalidate("/user/*");
+        return affected != null ? affected : 0;
+    }
+
+    /**
+     * 按UPDATE语句的条件判断该行是否被修改，并记录统计变化（执行前后的并发修改由统计校准修正）
+     */
+    private static void recordChange(UserStatisticsCounter.Changes changes, String operation, Integer currentStatus,
+                                     Integer deleted, LocalDateTime createTime, Integer status) {
+        boolean wasDeleted = deleted != null && deleted != 0;
+        if (OPERATION_DELETE.equals(operation) && !wasDeleted) {
+            changes.deleted(createTime, currentStatus);
+        } else if (OPERATION_RESTORE.equals(operation) && wasDeleted) {
+            changes.restored(createTime, currentStatus);
+        } else if (OPERATION_STATUS.equals(operation) && !wasDeleted) {
+            changes.statusChanged(currentStatus, status);
+        }
+    }
+
+    /**
+     * 异步任务
+     */
+    public interface Job {
+
+        /**
+         * 执行任务
+         *
+         * @param progress 更新任务记录中的进度字段
+         * @return 完成时写入任务记录的结果字段，可为null
+         */
+        Map<String, String> run(Consumer<Map<String, String>> progress) throws Exception;
+    }
+
+    private static List<Long> distinct(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new RuntimeException("用户ID列表不能为空");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        ids.remove(null);
+        return ids;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.user.service;
+
+import com.example.user.entity.User;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 用户信息两级缓存
+ * 一级为进程内Caffeine缓存，二级为Redis，均未命中时才查询数据库：
+ * 同一个键并发未命中时只有一个线程加载，其余线程等待同一结果；不存在的用户也会短时间缓存；
+ * 过期时间带随机抖动，避免同一批键同时失效。数据变更时调用evict，通过Redis发布/订阅通知所有实例清除本地缓存；
+ * 在事务中调用时清除推迟到事务提交之后，避免并发的未命中在提交前读回旧数据并重新写入缓存
+ */
+@Component
+public class UserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+
+    private static final String CACHE_PREFIX = "user:";
+
+    /**
+     * Redis中表示用户不存在的占位值
+     */
+    private static final String MISSING = "__missing__";
+
+    private static final String KEY_SEPARATOR = "\n";
+
+    /**
+     * 每条UNLINK命令和失效消息包含的最大键数
+     */
+    private static final int EVICT_BATCH_SIZE = 1000;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Value("${user.cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    /**
+     * 本地缓存有效期，作为失效消息丢失时的兜底
+     */
+    @Value("${user.cache.local-ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${user.cache.redis-ttl:30m}")
+    private Duration redisTtl;
+
+    /**
+     * 用户不存在时的缓存有效期（本地和Redis共用）
+     */
+    @Value("${user.cache.negative-ttl:30s}")
+    private Duration negativeTtl;
+
+    /**
+     * 有效期随机抖动比例，0.1表示在±10%范围内浮动
+     */
+    @Value("${user.cache.ttl-jitter:0.1}")
+    private double ttlJitter;
+
+    @Value("${user.cache.invalidation-channel:user:cache:invalidate}")
+    private String invalidationChannel;
+
+    private AsyncCache<String, Optional<User>> localCache;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfter(new Expiry<String, Optional<User>>() {
+                @Override
+                public long expireAfterCreate(String key, Optional<User> value, long currentTime) {
+                    return jitter(value.isPresent() ? localTtl : negativeTtl).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Optional<User> value, long currentTime,
+                                              long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Optional<User> value, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .buildAsync();
+
+        // 订阅其他实例发布的失效消息，一条消息包含多个以换行分隔的键
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(
+            (message, pattern) -> invalidateLocally(
+                new String(message.getBody(), StandardCharsets.UTF_8).split(KEY_SEPARATOR)),
+            new ChannelTopic(invalidationChannel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * 用户ID对应的缓存键
+     */
+    public static String idKey(Long userId) {
+        return "id:" + userId;
+    }
+
+    /**
+     * 获取用户，依次查询本地缓存、Redis和loader
+     * 返回的是缓存对象的副本，调用方可以自由修改
+     */
+    public Optional<User> get(String key, Supplier<Optional<User>> loader) {
+        CompletableFuture<Optional<User>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> result = localCache.get(key, (k, executor) -> loading);
+        if (result == loading) {
+            // 本线程负责加载，在调用线程中执行以沿用当前事务
+            try {
+                loading.complete(load(key, loader));
+            } catch (RuntimeException e) {
+                // 失败的加载会被Caffeine自动移除，等待中的线程收到同一个异常
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return result.join().map(UserCache::copy);
+    }
+
+    /**
+     * 清除缓存并通知其他实例，批量操作时可一次传入大量键；当前有事务时在事务提交后清除
+     */
+    public void evict(Collection<String> keys) {
+        List<String> cacheKeys = new ArrayList<>();
+        for (String key : keys) {
+            if (key != null) {
+                cacheKeys.add(key);
+            }
+        }
+        if (cacheKeys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(cacheKeys);
+                }
+            });
+        } else {
+            evictNow(cacheKeys);
+        }
+    }
+
+    private void evictNow(List<String> cacheKeys) {
+        invalidateLocally(cacheKeys.toArray(new String[0]));
+        try {
+            // 分批UNLINK（后台释放内存）并发布失效消息，全部命令在一次管道中发送
+            byte[] channel = invalidationChannel.getBytes(StandardCharsets.UTF_8);
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int from = 0; from < cacheKeys.size(); from += EVICT_BATCH_SIZE) {
+                    List<String> batch = cacheKeys.subList(from, Math.min(from + EVICT_BATCH_SIZE, cacheKeys.size()));
+                    byte[][] redisKeys = new byte[batch.size()][];
+                    for (int i = 0; i < batch.size(); i++) {
+                        redisKeys[i] = (CACHE_PREFIX + batch.get(i)).getBytes(StandardCharsets.UTF_8);
+                    }
+                    connection.keyCommands().unlink(redisKeys);
+                    connection.publish(channel, String.join(KEY_SEPARATOR, batch).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // Redis不可用时依赖本地缓存有效期兜底
+            logger.warn("清除用户缓存失败: {}, 错误: {}", cacheKeys, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取本地缓存统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = localCache.synchronous().stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", localCache.synchronous().estimatedSize());
+        result.put("hitRate", stats.hitRate());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private Optional<User> load(String key, Supplier<Optional<User>> loader) {
+        String redisKey = CACHE_PREFIX + key;
+        try {
+            Object cached = redisTemplate.opsForValue().get(redisKey);
+            if (cached instanceof User) {
+                return Optional.of((User) cached);
+            }
+            if (MISSING.equals(cached)) {
+                return Optional.empty();
+            }
+        } catch (Exception e) {
+            logger.warn("读取用户缓存失败: {}, 错误: {}", key, e.getMessage());
+        }
+
+        Optional<User> loaded = loader.get().map(UserCache::copy);
+        try {
+            if (loaded.isPresent()) {
+                redisTemplate.opsForValue().set(redisKey, loaded.get(), jitter(redisTtl).toMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                redisTemplate.opsForValue().set(redisKey, MISSING, jitter(negativeTtl).toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            logger.warn("写入用户缓存失败: {}, 错误: {}", key, e.getMessage());
+        }
+        return loaded;
+    }
+
+    private void invalidateLocally(String... keys) {
+        for (String key : keys) {
+            localCache.synchronous().invalidate(key);
+        }
+    }
+
+    private Duration jitter(Duration ttl) {
+        if (ttlJitter <= 0) {
+            return ttl;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-ttlJitter, ttlJitter);
+        return Duration.ofMillis(Math.max(1L, (long) (ttl.toMillis() * factor)));
+    }
+
+    /**
+     * 缓存中的对象在线程间共享，读写都使用副本，同时与JPA持久化上下文脱离
+     */
+    private static User copy(User source) {
+        User user = new User();
+        user.setId(source.getId());
+        user.setUsername(source.getUsername());
+        user.setPassword(source.getPassword());
+        user.setEmail(source.getEmail());
+        user.setPhone(source.getPhone());
+        user.setNickname(source.getNickname());
+        user.setAvatar(source.getAvatar());
+        user.setGender(source.getGender());
+        user.setBirthday(source.getBirthday());
+        user.setStatus(source.getStatus());
+        user.setLastLoginTime(source.getLastLoginTime());
+        user.setLastLoginIp(source.getLastLoginIp());
+        user.setCreateTime(source.getCreateTime());
+        user.setUpdateTime(source.getUpdateTime());
+        user.setDeleted(source.getDeleted());
+        return user;
+    }
+}
@@ -0,0 +1,636 @@
+package com.example.user.service;
+
+import com.example.common.util.GatewayCacheInvalidator;
+import com.example.user.search.UserSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 用户批量导入服务
+ * 逐行流式解析CSV（首行为表头）或NDJSON，每攒满一批：先用IN查询批量检查用户名/邮箱是否已存在，
+ * 再在独立的有界线程池中并行计算密码哈希（不占用登录使用的哈希线程池），然后以JDBC批量插入，ID由数据库自增生成。
+ * 内存占用只与批大小有关；单行错误只记录不中断导入，一批插入失败时逐行重试以定位出错的行。
+ * 密码哈希耗时较长，大文件应提交为异步任务：请求体先流式写入临时文件，再在批量任务队列中导入
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    public static final String OPERATION_IMPORT = "IMPORT";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO sys_user (username, password, email, phone, nickname, status, create_time, update_time, deleted) " +
+        "VALUES (?, ?, ?, ?, ?, 1, ?, ?, 0)";
+
+    private static final String SELECT_USERNAMES_SQL = "SELECT username FROM sys_user WHERE username IN (%s)";
+
+    private static final String SELECT_EMAILS_SQL = "SELECT email FROM sys_user WHERE deleted = 0 AND email IN (%s)";
+
+    /**
+     * 与注册接口的校验规则保持一致
+     */
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]{3,50}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+
+    /**
+     * 已是BCrypt哈希的密码（迁移场景）直接保存，不再计算
+     */
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^(\\{bcrypt\\})?\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserStatisticsCounter statisticsCounter;
+
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Value("${user.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 导入专用的密码哈希线程数，0表示CPU核数的一半
+     */
+    @Value("${user.import.hash-threads:0}")
+    private int hashThreads;
+
+    /**
+     * 结果中最多返回的错误明细数，超出部分只计数
+     */
+    @Value("${user.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService hashExecutor;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 每批的任务数不超过批大小，队列长度因此有界
+        hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        hashExecutor.shutdown();
+    }
+
+    /**
+     * 从输入流同步导入用户
+     *
+     * @param format csv或ndjson
+     */
+    public ImportResult importUsers(InputStream input, String format) throws IOException {
+        requireSupportedFormat(format);
+        return importUsers(input, format, null);
+    }
+
+    /**
+     * 提交异步导入任务，返回任务ID，进度和结果通过批量任务接口查询
+     * 请求体先流式写入临时文件（不占用内存），任务结束后删除
+     *
+     * @param format csv或ndjson
+     */
+    public String submitImport(InputStream input, String format) throws IOException {
+        requireSupportedFormat(format);
+        Path file = Files.createTempFile("user-import-", "." + format);
+        try {
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            Map<String, String> fields = new HashMap<>();
+            fields.put("processed", "0");
+            fields.put("affected", "0");
+            fields.put("failed", "0");
+            return userBulkService.submitJob(OPERATION_IMPORT, fields, progress -> {
+                try (InputStream fileInput = Files.newInputStream(file)) {
+                    ImportResult result = importUsers(fileInput, format, current -> progress.accept(current.toFields()));
+                    Map<String, String> values = result.toFields();
+                    values.put("total", String.valueOf(result.total));
+                    values.put("errors", objectMapper.writeValueAsString(result.errors));
+                    return values;
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static void requireSupportedFormat(String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new RuntimeException("不支持的导入格式: " + format);
+        }
+    }
+
+    /**
+     * 逐行导入，progress不为空时每批完成后回调
+     */
+    private ImportResult importUsers(InputStream input, String format, Consumer<ImportResult> progress)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        ImportResult result = new ImportResult(maxReportedErrors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        String[] header = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (FORMAT_CSV.equals(format) && header == null) {
+                header = parseCsvLine(line.startsWith("\uFEFF") ? line.substring(1) : line);
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = header[i].trim().toLowerCase(Locale.ROOT);
+                }
+                continue;
+            }
+
+            result.total++;
+            try {
+                batch.add(FORMAT_CSV.equals(format) ? parseCsvRow(header, line, lineNumber) : parseJsonRow(line, lineNumber));
+            } catch (Exception e) {
+                result.addError(lineNumber, null, "解析失败: " + e.getMessage());
+                continue;
+            }
+            if (batch.size() >= batchSize) {
+                importBatch(batch, result);
+                batch.clear();
+                if (progress != null) {
+                    progress.accept(result);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, result);
+        }
+
+        logger.info("用户导入完成 - 格式: {}, 总行数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
+            format, result.total, result.imported, result.failed, System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private void importBatch(List<ImportRow> rows, ImportResult result) {
+        List<ImportRow> valid = validate(rows, result);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 并行计算密码哈希，已是哈希的直接使用
+        List<CompletableFuture<String>> hashes = new ArrayList<>(valid.size());
+        for (ImportRow row : valid) {
+            hashes.add(row.passwordHash != null
+                ? CompletableFuture.completedFuture(row.passwordHash)
+                : CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.password), hashExecutor));
+        }
+        List<ImportRow> hashed = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            ImportRow row = valid.get(i);
+            try {
+                row.passwordHash = hashes.get(i).join();
+                row.password = null;
+                hashed.add(row);
+            } catch (CompletionException e) {
+                result.addError(row.lineNumber, row.username, "密码加密失败: " + e.getCause().getMessage());
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<ImportRow> inserted;
+        try {
+            transactionTemplate.execute(transaction -> jdbcTemplate.execute(
+                (ConnectionCallback<Void>) connection -> {
+                    insertBatch(connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS), hashed, now);
+                    return null;
+                }));
+            inserted = hashed;
+        } catch (Exception e) {
+            // 整批回滚（通常是并发注册造成的重复），逐行插入找出失败的行
+            logger.warn("用户导入批量插入失败，改为逐行插入: {}", e.getMessage());
+            inserted = new ArrayList<>(hashed.size());
+            for (ImportRow row : hashed) {
+                try {
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                        bind(statement, row, now);
+                        return statement;
+                    }, keyHolder);
+                    row.id = keyHolder.getKey().longValue();
+                    inserted.add(row);
+                } catch (Exception rowError) {
+                    result.addError(row.lineNumber, row.username, "插入失败: " + rowError.getMessage());
+                }
+            }
+        }
+        result.imported += inserted.size();
+        afterInsert(inserted, now.toLocalDateTime());
+    }
+
+    /**
+     * 批量插入并按顺序回填数据库生成的ID（开启rewriteBatchedStatements时合并为多行INSERT）
+     */
+    private static void insertBatch(PreparedStatement statement, List<ImportRow> rows, Timestamp now)
+            throws SQLException {
+        try {
+            for (ImportRow row : rows) {
+                bind(statement, row, now);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (ImportRow row : rows) {
+                    if (!keys.next()) {
+                        throw new SQLException("生成的用户ID数量与插入行数不一致");
+                    }
+                    row.id = keys.getLong(1);
+                }
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, ImportRow row, Timestamp now) throws SQLException {
+        statement.setString(1, row.username);
+        statement.setString(2, row.passwordHash);
+        statement.setString(3, row.email);
+        statement.setString(4, row.phone);
+        statement.setString(5, row.nickname != null ? row.nickname : row.username);
+        statement.setTimestamp(6, now);
+        statement.setTimestamp(7, now);
+    }
+
+    /**
+     * 校验字段格式，并以IN查询批量检查用户名/邮箱是否已存在（批内重复同样视为错误）
+     */
+    private List<ImportRow> validate(List<ImportRow> rows, ImportResult result) {
+        List<ImportRow> wellFormed = new ArrayList<>(rows.size());
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (ImportRow row : rows) {
+            String error = checkFormat(row);
+            if (error == null && !batchUsernames.add(row.username.toLowerCase(Locale.ROOT))) {
+                error = "用户名在导入数据中重复";
+            }
+            if (error == null && row.email != null && !batchEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+                error = "邮箱在导入数据中重复";
+            }
+            if (error != null) {
+                result.addError(row.lineNumber, row.username, error);
+            } else {
+                wellFormed.add(row);
+            }
+        }
+        if (wellFormed.isEmpty()) {
+            return wellFormed;
+        }
+
+        List<String> usernames = new ArrayList<>(wellFormed.size());
+        List<String> emails = new ArrayList<>(wellFormed.size());
+        for (ImportRow row : wellFormed) {
+            usernames.add(row.username);
+            if (row.email != null) {
+                emails.add(row.email);
+            }
+        }
+        // 与数据库默认排序规则一致，按忽略大小写比较
+        Set<String> takenUsernames = findExisting(SELECT_USERNAMES_SQL, usernames);
+        Set<String> takenEmails = findExisting(SELECT_EMAILS_SQL, emails);
+
+        List<ImportRow> valid = new ArrayList<>(wellFormed.size());
+        for (ImportRow row : wellFormed) {
+            if (takenUsernames.contains(row.username.toLowerCase(Locale.ROOT))) {
+                result.addError(row.lineNumber, row.username, "用户名已存在");
+            } else if (row.email != null && takenEmails.contains(row.email.toLowerCase(Locale.ROOT))) {
+                result.addError(row.lineNumber, row.username, "邮箱已存在");
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private static String checkFormat(ImportRow row) {
+        if (row.username == null || !USERNAME_PATTERN.matcher(row.username).matches()) {
+            return "用户名必须为3-50个字母、数字或下划线";
+        }
+        if (row.passwordHash != null) {
+            if (!BCRYPT_PATTERN.matcher(row.passwordHash).matches()) {
+                return "密码哈希必须是BCrypt格式";
+            }
+        } else if (row.password == null || row.password.length() < 6 || row.password.length() > 20) {
+            return "密码长度必须在6-20个字符之间";
+        }
+        if (row.email != null && (row.email.length() > 100 || !EMAIL_PATTERN.matcher(row.email).matches())) {
+            return "邮箱格式不正确";
+        }
+        if (row.phone != null && !PHONE_PATTERN.matcher(row.phone).matches()) {
+            return "手机号格式不正确";
+        }
+        if (row.nickname != null && row.nickname.length() > 50) {
+            return "昵称长度不能超过50个字符";
+        }
+        return null;
+    }
+
+    private Set<String> findExisting(String sql, List<String> values) {
+        if (values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String placeholders = String.join(",", Collections.nCopies(values.size(), "?"));
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(String.format(sql, placeholders),
+            rs -> {
+                existing.add(rs.getString(1).toLowerCase(Locale.ROOT));
+            },
+            values.toArray());
+        return existing;
+    }
+
+    /**
+     * 同步占用索引、缓存、搜索索引和统计计数，每批只发送少量Redis命令
+     */
+    private void afterInsert(List<ImportRow> inserted, LocalDateTime createTime) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(inserted.size());
+        List<String> usernames = new ArrayList<>(inserted.size());
+        List<String> emails = new ArrayList<>(inserted.size());
+        List<String> cacheKeys = new ArrayList<>(inserted.size() * 3);
+        UserStatisticsCounter.Changes changes = new UserStatisticsCounter.Changes();
+        for (ImportRow row : inserted) {
+            ids.add(row.id);
+            usernames.add(row.username);
+            emails.add(row.email);
+            // 清除之前缓存的"用户不存在"结果
+            cacheKeys.add(UserCache.idKey(row.id));
+            cacheKeys.add(row.username);
+            cacheKeys.add(row.email);
+            changes.added(createTime, 1);
+        }
+        availabilityIndex.markTaken(usernames, emails);
+        userCache.evict(cacheKeys);
+        userSearchIndex.onChanged(ids);
+        statisticsCounter.apply(changes);
+        gatewayCacheInvalidator.invalidate("/user/check-username", "/user/check-email");
+    }
+
+    private ImportRow parseJsonRow(String line, int lineNumber) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("每行必须是一个JSON对象");
+        }
+        ImportRow row = new ImportRow(lineNumber);
+        row.username = text(node.get("username"));
+        row.password = text(node.get("password"));
+        row.passwordHash = text(node.get("passwordHash"));
+        row.email = text(node.get("email"));
+        row.phone = text(node.get("phone"));
+        row.nickname = text(node.get("nickname"));
+        return row;
+    }
+
+    private static ImportRow parseCsvRow(String[] header, String line, int lineNumber) {
+        String[] values = parseCsvLine(line);
+        if (values.length > header.length) {
+            throw new IllegalArgumentException("列数多于表头");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            fields.put(header[i], values[i]);
+        }
+        ImportRow row = new ImportRow(lineNumber);
+        row.username = blankToNull(fields.get("username"));
+        row.password = blankToNull(fields.get("password"));
+        row.passwordHash = blankToNull(fields.get("passwordhash"));
+        row.email = blankToNull(fields.get("email"));
+        row.phone = blankToNull(fields.get("phone"));
+        row.nickname = blankToNull(fields.get("nickname"));
+        return row;
+    }
+
+    /**
+     * 解析一行CSV：逗号分隔，字段可用双引号包裹，引号内的双引号写作两个双引号（不支持字段内换行）
+     */
+    private static String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("引号未闭合");
+        }
+        values.add(value.toString());
+        return values.toArray(new String[0]);
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : blankToNull(node.asText());
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * 导入的一行数据
+     */
+    private static final class ImportRow {
+        private final int lineNumber;
+        private long id;
+        private String username;
+        private String password;
+        private String passwordHash;
+        private String email;
+        private String phone;
+        private String nickname;
+
+        ImportRow(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    /**
+     * 导入结果
+     */
+    public static class ImportResult {
+        private final int maxReportedErrors;
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void addError(int lineNumber, String username, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(lineNumber, username, message));
+            }
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * 错误明细，最多返回user.import.max-reported-errors条
+         */
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        /**
+         * 异步任务记录中的进度字段
+         */
+        Map<String, String> toFields() {
+            Map<String, String> fields = new HashMap<>();
+            fields.put("processed", String.valueOf(total));
+            fields.put("affected", String.valueOf(imported));
+            fields.put("failed", String.valueOf(failed));
+            return fields;
+        }
+    }
+
+    /**
+     * 单行错误
+     */
+    public static class RowError {
+        private final int line;
+        private final String username;
+        private final String message;
+
+        RowError(int line, String username, String message) {
+            this.line = line;
+            this.username = username;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.user.service;
+
+import com.example.common.redis.EncoderSupport;
+import com.example.common.redis.RedisValueEncoder;
+import com.example.user.entity.User;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 用户信息缓存的二进制编码
+ * 字段按固定顺序写入，新增字段时追加到末尾并递增版本号
+ */
+@Component
+public class UserRedisEncoder implements RedisValueEncoder<User> {
+
+    public static final int TYPE_ID = 1;
+
+    private static final int VERSION = 1;
+
+    @Override
+    public int typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    @Override
+    public Class<User> type() {
+        return User.class;
+    }
+
+    @Override
+    public void write(User user, DataOutput out) throws IOException {
+        EncoderSupport.writeLong(out, user.getId());
+        EncoderSupport.writeString(out, user.getUsername());
+        EncoderSupport.writeString(out, user.getPassword());
+        EncoderSupport.writeString(out, user.getEmail());
+        EncoderSupport.writeString(out, user.getPhone());
+        EncoderSupport.writeString(out, user.getNickname());
+        EncoderSupport.writeString(out, user.getAvatar());
+        EncoderSupport.writeString(out, user.getGender());
+        EncoderSupport.writeDateTime(out, user.getBirthday());
+        EncoderSupport.writeInteger(out, user.getStatus());
+        EncoderSupport.writeDateTime(out, user.getLastLoginTime());
+        EncoderSupport.writeString(out, user.getLastLoginIp());
+        EncoderSupport.writeDateTime(out, user.getCreateTime());
+        EncoderSupport.writeDateTime(out, user.getUpdateTime());
+        EncoderSupport.writeInteger(out, user.getDeleted());
+    }
+
+    @Override
+    public User read(DataInput in, int version) throws IOException {
+        User user = new User();
+        user.setId(EncoderSupport.readLong(in));
+        user.setUsername(EncoderSupport.readString(in));
+        user.setPassword(EncoderSupport.readString(in));
+        user.setEmail(EncoderSupport.readString(in));
+        user.setPhone(EncoderSupport.readString(in));
+        user.setNickname(EncoderSupport.readString(in));
+        user.setAvatar(EncoderSupport.readString(in));
+        user.setGender(EncoderSupport.readString(in));
+        user.setBirthday(EncoderSupport.readDateTime(in));
+        user.setStatus(EncoderSupport.readInteger(in));
+        user.setLastLoginTime(EncoderSupport.readDateTime(in));
+        user.setLastLoginIp(EncoderSupport.readString(in));
+        user.setCreateTime(EncoderSupport.readDateTime(in));
+        user.setUpdateTime(EncoderSupport.readDateTime(in));
+        user.setDeleted(EncoderSupport.readInteger(in));
+        return user;
+    }
+}
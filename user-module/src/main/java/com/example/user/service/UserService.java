@@ -1,9 +1,13 @@
 package com.example.user.service;
 
+import com.example.common.util.GatewayCacheInvalidator;
 import com.example.common.util.PasswordUtil;
+import com.example.common.web.PageCursor;
 import com.example.common.web.PageResponse;
+import com.example.user.dto.UserSummary;
 import com.example.user.entity.User;
 import com.example.user.repository.UserRepository;
+import com.example.user.search.UserSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -11,9 +15,18 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -30,7 +43,21 @@ public class UserService {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
     
-    private static final String USER_CACHE_PREFIX = "user:";
+    @Autowired
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+    
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Autowired
+    private UserStatisticsCounter statisticsCounter;
+    
     private static final String LOGIN_CACHE_PREFIX = "login:";
     
     /**
@@ -38,12 +65,12 @@ public class UserService {
      */
     public User register(String username, String password, String email) {
         // 检查用户名是否已存在
-        if (userRepository.existsByUsernameAndDeleted(username, 0)) {
+        if (!isUsernameAvailable(username)) {
             throw new RuntimeException("用户名已存在");
         }
         
         // 检查邮箱是否已存在
-        if (email != null && userRepository.existsByEmailAndDeleted(email, 0)) {
+        if (email != null && !isEmailAvailable(email)) {
             throw new RuntimeException("邮箱已存在");
         }
         
@@ -54,46 +81,32 @@ public class UserService {
         user.setEmail(email);
         user.setNickname(username);
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        availabilityIndex.markTaken(username, email);
+        statisticsCounter.apply(new UserStatisticsCounter.Changes()
+            .added(savedUser.getCreateTime(), savedUser.getStatus()));
+        
+        // 清除之前缓存的"用户不存在"结果
+        userCache.evict(Arrays.asList(username, email, UserCache.idKey(savedUser.getId())));
+        
+        // 用户名/邮箱可用性结果已变化，事务提交后通知网关清除缓存
+        afterCommit(() -> gatewayCacheInvalidator.invalidate("/user/check-username", "/user/check-email"));
+        
+        return savedUser;
     }
     
     /**
      * 根据用户名或邮箱查找用户
      */
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
-        // 先从缓存中查找
-        String cacheKey = USER_CACHE_PREFIX + usernameOrEmail;
-        User cachedUser = (User) redisTemplate.opsForValue().get(cacheKey);
-        if (cachedUser != null) {
-            return Optional.of(cachedUser);
-        }
-        
-        // 从数据库查找
-        Optional<User> userOpt = userRepository.findByUsernameOrEmail(usernameOrEmail);
-        if (userOpt.isPresent()) {
-            // 缓存用户信息，过期时间30分钟
-            redisTemplate.opsForValue().set(cacheKey, userOpt.get(), 30, TimeUnit.MINUTES);
-        }
-        
-        return userOpt;
+        return userCache.get(usernameOrEmail, () -> userRepository.findByUsernameOrEmail(usernameOrEmail));
     }
     
     /**
      * 根据ID查找用户
      */
     public Optional<User> findById(Long id) {
-        String cacheKey = USER_CACHE_PREFIX + "id:" + id;
-        User cachedUser = (User) redisTemplate.opsForValue().get(cacheKey);
-        if (cachedUser != null) {
-            return Optional.of(cachedUser);
-        }
-        
-        Optional<User> userOpt = userRepository.findById(id);
-        if (userOpt.isPresent()) {
-            redisTemplate.opsForValue().set(cacheKey, userOpt.get(), 30, TimeUnit.MINUTES);
-        }
-        
-        return userOpt;
+        return userCache.get(UserCache.idKey(id), () -> userRepository.findById(id));
     }
     
     /**
@@ -102,6 +115,7 @@ public class UserService {
     public User updateUser(Long id, User updateUser) {
         User existingUser = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
+        String previousEmail = existingUser.getEmail();
         
         // 更新字段
         if (updateUser.getNickname() != null) {
@@ -109,6 +123,7 @@ public class UserService {
         }
         if (updateUser.getEmail() != null) {
             existingUser.setEmail(updateUser.getEmail());
+            availabilityIndex.markTaken(null, updateUser.getEmail());
         }
         if (updateUser.getPhone() != null) {
             existingUser.setPhone(updateUser.getPhone());
@@ -127,8 +142,11 @@ public class UserService {
         
         User savedUser = userRepository.save(existingUser);
         
-        // 清除缓存
-        clearUserCache(existingUser.getUsername(), existingUser.getId());
+        // 清除缓存（邮箱变更时旧邮箱的缓存也要清除）
+        clearUserCache(existingUser);
+        if (previousEmail != null && !previousEmail.equals(existingUser.getEmail())) {
+            userCache.evict(Collections.singletonList(previousEmail));
+        }
         
         return savedUser;
     }
@@ -147,22 +165,16 @@ public class UserService {
         userRepository.save(user);
         
         // 清除缓存
-        clearUserCache(user.getUsername(), userId);
+        clearUserCache(user);
     }
     
     /**
      * 分页查询用户
      */
-    public PageResponse<User> findUsers(int page, int size, String keyword) {
+    @Transactional(readOnly = true)
+    public PageResponse<UserSummary> findUsers(int page, int size) {
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("createTime").descending());
-        Page<User> userPage;
-        
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            // 这里可以添加关键字搜索逻辑
-            userPage = userRepository.findAll(pageable);
-        } else {
-            userPage = userRepository.findAll(pageable);
-        }
+        Page<UserSummary> userPage = userRepository.findSummaries(pageable);
         
         return new PageResponse<>(
             (long) page,
@@ -172,6 +184,64 @@ public class UserService {
         );
     }
     
+    /**
+     * 按关键字搜索用户（用户名、昵称、邮箱、手机号），按匹配程度排序并游标分页
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserSummary> searchUsers(String keyword, String cursor, int size) {
+        if (size < 1 || size >= UserSearchIndex.MAX_LIMIT) {
+            throw new RuntimeException("每页大小必须在1到" + (UserSearchIndex.MAX_LIMIT - 1) + "之间");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        Map<Long, Integer> ranks = new HashMap<>();
+        List<UserSummary> rows = new ArrayList<>(size + 1);
+        
+        // 多取一条判断是否有下一页；索引尚未同步的已删除用户会被跳过，不足时从最后一个命中之后继续取
+        while (rows.size() <= size) {
+            int wanted = size + 1 - rows.size();
+            List<UserSearchIndex.Hit> hits = userSearchIndex.search(keyword, position, wanted);
+            if (hits.isEmpty()) {
+                break;
+            }
+            List<Long> hitIds = new ArrayList<>(hits.size());
+            for (UserSearchIndex.Hit hit : hits) {
+                ranks.put(hit.getUserId(), hit.getRank());
+                hitIds.add(hit.getUserId());
+            }
+            Map<Long, UserSummary> users = new HashMap<>();
+            for (UserSummary user : userRepository.findSummariesByIdIn(hitIds)) {
+                users.put(user.getId(), user);
+            }
+            
+            // 按索引给出的顺序返回
+            for (UserSearchIndex.Hit hit : hits) {
+                UserSummary user = users.get(hit.getUserId());
+                if (user != null) {
+                    rows.add(user);
+                }
+            }
+            if (hits.size() < wanted) {
+                break;
+            }
+            UserSearchIndex.Hit last = hits.get(hits.size() - 1);
+            position = PageCursor.of(last.getRank(), last.getUserId());
+        }
+        return PageResponse.ofCursor(rows, size, user -> PageCursor.of(ranks.get(user.getId()), user.getId()));
+    }
+    
+    /**
+     * 游标分页查询用户，cursor为空时返回第一页
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserSummary> findUsers(String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<UserSummary> rows = position == null
+            ? userRepository.findSummariesFirst(limit)
+            : userRepository.findSummariesAfter(position.getSortKey(), position.getId(), limit);
+        return PageResponse.ofCursor(rows, size, user -> PageCursor.of(user.getCreateTime(), user.getId()));
+    }
+    
     /**
      * 缓存登录状态
      */
@@ -215,7 +285,7 @@ public class UserService {
         userRepository.save(user);
         
         // 清除缓存
-        clearUserCache(user.getUsername(), userId);
+        clearUserCache(user);
     }
     
     /**
@@ -234,7 +304,7 @@ public class UserService {
         userRepository.save(user);
         
         // 清除缓存
-        clearUserCache(user.getUsername(), userId);
+        clearUserCache(user);
         
         return avatarUrl;
     }
@@ -246,13 +316,16 @@ public class UserService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
         
+        if (user.getDeleted() == null || user.getDeleted() == 0) {
+            statisticsCounter.apply(new UserStatisticsCounter.Changes().statusChanged(user.getStatus(), status));
+        }
         user.setStatus(status);
         user.setUpdateTime(LocalDateTime.now());
         
         userRepository.save(user);
         
         // 清除缓存
-        clearUserCache(user.getUsername(), userId);
+        clearUserCache(user);
     }
     
     /**
@@ -262,27 +335,17 @@ public class UserService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
         
+        if (user.getDeleted() == null || user.getDeleted() == 0) {
+            statisticsCounter.apply(new UserStatisticsCounter.Changes()
+                .deleted(user.getCreateTime(), user.getStatus()));
+        }
         user.setDeleted(1);
         user.setUpdateTime(LocalDateTime.now());
         
         userRepository.save(user);
         
         // 清除缓存
-        clearUserCache(user.getUsername(), userId);
-    }
-    
-    /**
-     * 批量删除用户
-     */
-    public void batchDeleteUsers(java.util.List<Long> userIds) {
-        for (Long userId : userIds) {
-            try {
-                deleteUser(userId);
-            } catch (Exception e) {
-                // 记录错误但继续处理其他用户
-                System.err.println("删除用户失败: " + userId + ", 错误: " + e.getMessage());
-            }
-        }
+        clearUserCache(user);
     }
     
     /**
@@ -301,48 +364,33 @@ public class UserService {
         userRepository.save(user);
         
         // 清除缓存
-        clearUserCache(user.getUsername(), userId);
+        clearUserCache(user);
         
         return newPassword;
     }
     
     /**
-     * 检查用户名是否可用
+     * 检查用户名是否可用（占用索引判断一定可用时不查询数据库）
      */
     public boolean isUsernameAvailable(String username) {
-        return !userRepository.existsByUsernameAndDeleted(username, 0);
+        return !availabilityIndex.mightBeTakenUsername(username)
+            || !userRepository.existsByUsernameAndDeleted(username, 0);
     }
     
     /**
-     * 检查邮箱是否可用
+     * 检查邮箱是否可用（占用索引判断一定可用时不查询数据库）
      */
     public boolean isEmailAvailable(String email) {
-        return !userRepository.existsByEmailAndDeleted(email, 0);
+        return !availabilityIndex.mightBeTakenEmail(email)
+            || !userRepository.existsByEmailAndDeleted(email, 0);
     }
     
     /**
-     * 获取用户统计信息
+     * 获取用户统计信息（读取增量维护的计数，不查询数据库）
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public com.example.user.controller.UserController.UserStatistics getUserStatistics() {
-        // 模拟统计数据，实际项目中应该从数据库查询
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByStatusAndDeleted(1, 0);
-        long inactiveUsers = userRepository.countByStatusAndDeleted(0, 0);
-        
-        // 今日注册用户数
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        long todayRegistrations = userRepository.countByCreateTimeAfterAndDeleted(startOfDay, 0);
-        
-        // 本周注册用户数
-        LocalDateTime startOfWeek = LocalDateTime.now().minusDays(7);
-        long weekRegistrations = userRepository.countByCreateTimeAfterAndDeleted(startOfWeek, 0);
-        
-        // 本月注册用户数
-        LocalDateTime startOfMonth = LocalDateTime.now().minusDays(30);
-        long monthRegistrations = userRepository.countByCreateTimeAfterAndDeleted(startOfMonth, 0);
-        
-        return new com.example.user.controller.UserController.UserStatistics(
-            totalUsers, activeUsers, inactiveUsers, todayRegistrations, weekRegistrations, monthRegistrations);
+        return statisticsCounter.getStatistics();
     }
     
     /**
@@ -363,8 +411,25 @@ public class UserService {
     /**
      * 清除用户缓存
      */
-    private void clearUserCache(String username, Long userId) {
-        redisTemplate.delete(USER_CACHE_PREFIX + username);
-        redisTemplate.delete(USER_CACHE_PREFIX + "id:" + userId);
+    private void clearUserCache(User user) {
+        userCache.evict(Arrays.asList(user.getUsername(), user.getEmail(), UserCache.idKey(user.getId())));
+        String path = "/user/" + user.getId();
+        afterCommit(() -> gatewayCacheInvalidator.invalidate(path));
+    }
+    
+    /**
+     * 事务提交后执行（没有事务时立即执行），避免提交前被并发请求读回旧数据重新缓存
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
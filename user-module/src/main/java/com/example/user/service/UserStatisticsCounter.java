@@ -0,0 +1,293 @@
+package com.example.user.service;
+
+import com.example.user.controller.UserController;
+import com.example.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户统计计数器
+ * 用户总数、各状态用户数和按天的注册数保存在一个Redis哈希中，注册、状态变更、删除和恢复时在事务提交后增量更新，
+ * 今日/7天/30天注册数由按天计数汇总（按自然日计算，包含今天），查询只需一次HMGET。
+ * 增量更新可能因Redis故障或与校准并发而产生偏差，后台定期用数据库统计结果整体覆盖校准
+ */
+@Component
+public class UserStatisticsCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatisticsCounter.class);
+
+    private static final String STATS_KEY = "user:stats";
+
+    private static final String RECONCILE_LOCK_KEY = "user:stats:reconcile-lock";
+
+    private static final String FIELD_TOTAL = "total";
+    private static final String FIELD_ACTIVE = "active";
+    private static final String FIELD_INACTIVE = "inactive";
+    private static final String FIELD_RECONCILED_AT = "reconciledAt";
+    private static final String REGISTRATION_PREFIX = "reg:";
+
+    private static final int STATUS_ACTIVE = 1;
+    private static final int STATUS_INACTIVE = 0;
+
+    /**
+     * 保留的按天注册数天数，覆盖最长的30天窗口
+     */
+    private static final int REGISTRATION_DAYS = 30;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${user.statistics.reconcile-interval:10m}")
+    private Duration reconcileInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reconcileInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileIfLeader, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * 当前事务提交后应用计数变化（没有事务时立即应用）
+     */
+    public void apply(Changes changes) {
+        if (changes.increments.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(changes.increments);
+                }
+            });
+        } else {
+            increment(changes.increments);
+        }
+    }
+
+    /**
+     * 获取用户统计信息，计数尚未初始化时先从数据库校准
+     */
+    public UserController.UserStatistics getStatistics() {
+        LocalDate today = LocalDate.now();
+        List<Object> fields = new ArrayList<>(REGISTRATION_DAYS + 4);
+        fields.add(FIELD_TOTAL);
+        fields.add(FIELD_ACTIVE);
+        fields.add(FIELD_INACTIVE);
+        fields.add(FIELD_RECONCILED_AT);
+        for (int day = 0; day < REGISTRATION_DAYS; day++) {
+            fields.add(registrationField(today.minusDays(day)));
+        }
+
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(STATS_KEY, fields);
+        if (values.get(3) == null) {
+            reconcile();
+            values = stringRedisTemplate.opsForHash().multiGet(STATS_KEY, fields);
+        }
+
+        long todayRegistrations = 0;
+        long weekRegistrations = 0;
+        long monthRegistrations = 0;
+        for (int day = 0; day < REGISTRATION_DAYS; day++) {
+            long count = toLong(values.get(4 + day));
+            if (day == 0) {
+                todayRegistrations = count;
+            }
+            if (day < 7) {
+                weekRegistrations += count;
+            }
+            monthRegistrations += count;
+        }
+        return new UserController.UserStatistics(toLong(values.get(0)), toLong(values.get(1)), toLong(values.get(2)),
+            todayRegistrations, weekRegistrations, monthRegistrations);
+    }
+
+    /**
+     * 用数据库统计结果整体覆盖Redis中的计数
+     */
+    public void reconcile() {
+        long startTime = System.currentTimeMillis();
+        Map<String, String> snapshot = new HashMap<>();
+        snapshot.put(FIELD_TOTAL, String.valueOf(userRepository.count()));
+        snapshot.put(FIELD_ACTIVE, String.valueOf(userRepository.countByStatusAndDeleted(STATUS_ACTIVE, 0)));
+        snapshot.put(FIELD_INACTIVE, String.valueOf(userRepository.countByStatusAndDeleted(STATUS_INACTIVE, 0)));
+        LocalDateTime since = LocalDate.now().minusDays(REGISTRATION_DAYS - 1).atStartOfDay();
+        for (Object[] row : userRepository.countDailyRegistrations(since)) {
+            snapshot.put(registrationField(toLocalDate(row[0])), String.valueOf(((Number) row[1]).longValue()));
+        }
+        snapshot.put(FIELD_RECONCILED_AT, LocalDateTime.now().toString());
+
+        // 删除后整体写入，同时清理过期的按天计数
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) throws DataAccessException {
+                operations.multi();
+                operations.delete(STATS_KEY);
+                operations.opsForHash().putAll(STATS_KEY, snapshot);
+                return operations.exec();
+            }
+        });
+        logger.debug("用户统计校准完成 - 总数: {}, 耗时: {}ms",
+            snapshot.get(FIELD_TOTAL), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 多实例部署时只由获得锁的实例校准
+     */
+    private void reconcileIfLeader() {
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(RECONCILE_LOCK_KEY, "1", reconcileInterval.dividedBy(2));
+            if (Boolean.TRUE.equals(acquired)) {
+                reconcile();
+            }
+        } catch (Exception e) {
+            logger.warn("用户统计校准失败: {}", e.getMessage());
+        }
+    }
+
+    private void increment(Map<String, Long> increments) {
+        try {
+            byte[] key = STATS_KEY.getBytes(StandardCharsets.UTF_8);
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<String, Long> entry : increments.entrySet()) {
+                    if (entry.getValue() != 0) {
+                        connection.hashCommands().hIncrBy(key, entry.getKey().getBytes(StandardCharsets.UTF_8),
+                            entry.getValue());
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 丢失的增量由下次校准修正
+            logger.warn("更新用户统计失败: {}, 错误: {}", increments, e.getMessage());
+        }
+    }
+
+    private static String registrationField(LocalDate date) {
+        return REGISTRATION_PREFIX + date;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    /**
+     * 一次操作产生的计数变化，调用apply后生效
+     */
+    public static final class Changes {
+
+        private final Map<String, Long> increments = new HashMap<>();
+
+        /**
+         * 新增用户
+         */
+        public Changes added(LocalDateTime createTime, Integer status) {
+            add(FIELD_TOTAL, 1);
+            return restored(createTime, status);
+        }
+
+        /**
+         * 逻辑删除用户（总数包含已删除用户，不变）
+         */
+        public Changes deleted(LocalDateTime createTime, Integer status) {
+            add(statusField(status), -1);
+            add(registrationFieldOf(createTime), -1);
+            return this;
+        }
+
+        /**
+         * 恢复逻辑删除的用户
+         */
+        public Changes restored(LocalDateTime createTime, Integer status) {
+            add(statusField(status), 1);
+            add(registrationFieldOf(createTime), 1);
+            return this;
+        }
+
+        /**
+         * 未删除用户的状态变化
+         */
+        public Changes statusChanged(Integer from, Integer to) {
+            if (from != null && !from.equals(to)) {
+                add(statusField(from), -1);
+                add(statusField(to), 1);
+            }
+            return this;
+        }
+
+        private void add(String field, long delta) {
+            if (field != null) {
+                increments.merge(field, delta, Long::sum);
+            }
+        }
+
+        private static String statusField(Integer status) {
+            if (status == null) {
+                return null;
+            }
+            return status == STATUS_ACTIVE ? FIELD_ACTIVE : status == STATUS_INACTIVE ? FIELD_INACTIVE : null;
+        }
+
+        /**
+         * 超出统计窗口的注册日期不再计数
+         */
+        private static String registrationFieldOf(LocalDateTime createTime) {
+            if (createTime == null) {
+                return null;
+            }
+            LocalDate date = createTime.toLocalDate();
+            return date.isBefore(LocalDate.now().minusDays(REGISTRATION_DAYS - 1)) ? null : registrationField(date);
+        }
+    }
+}